@@ -0,0 +1,263 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * The batch runner plays command scripts without anyone at the keyboard,
+ * for testing worlds and balance changes. A script is a file of commands,
+ * one per line, as a player would type them. Each script is played by its
+ * own Game in its own copy of the world, through the same command handling
+ * as interactive play, but without prompts: the whole script is read at
+ * once and parsed in place, and the output collects in the game's sink
+ * and is written out in blocks of many commands rather than line by line.
+ *
+ *     java BatchRunner [-world file] [-threads n] [-out directory] script...
+ *
+ * Without -out the output of the games is thrown away. With it, the output
+ * of each script goes to a file of the same name with ".out" added. Several
+ * scripts are played at the same time with -threads. The number of commands
+ * played per second is reported for every script and for the whole run.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class BatchRunner
+{
+    // Output is written to its file in blocks of this size.
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private Path worldFile;         // null for the built-in world
+    private Path worldImage;        // the image of worldFile, once prepared
+    private Path outputDirectory;   // null to throw the output away
+
+    /**
+     * Run scripts from the command line.
+     * @param args The options, followed by the script files.
+     * @throws IOException if the world or a script cannot be read.
+     * @throws InterruptedException if interrupted while scripts are running.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        Path worldFile = null;
+        Path outputDirectory = null;
+        int threads = 1;
+        List<Path> scripts = new ArrayList<>();
+        for(int i = 0; i < args.length; i++) {
+            if(args[i].equals("-world") && i + 1 < args.length) {
+                worldFile = Paths.get(args[++i]);
+            }
+            else if(args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            }
+            else if(args[i].equals("-out") && i + 1 < args.length) {
+                outputDirectory = Paths.get(args[++i]);
+            }
+            else {
+                scripts.add(Paths.get(args[i]));
+            }
+        }
+        if(scripts.isEmpty()) {
+            System.out.println("usage: java BatchRunner [-world file] [-threads n] [-out directory] script...");
+            return;
+        }
+
+        BatchRunner runner = new BatchRunner(worldFile, outputDirectory);
+        long start = System.nanoTime();
+        List<Result> results = runner.runAll(scripts, threads);
+        long nanos = System.nanoTime() - start;
+
+        long commands = 0;
+        for(Result result : results) {
+            System.out.println(result);
+            commands += result.getCommands();
+        }
+        System.out.printf("Total: %d commands in %.1f ms (%.0f commands/s)%n",
+                          commands, nanos / 1e6, commands / (Math.max(nanos, 1) / 1e9));
+    }
+
+    /**
+     * Create a runner that plays scripts in the given world.
+     * @param worldFile The world definition or image to play in, or null
+     *                  for the built-in world.
+     * @param outputDirectory Where the output of each script is written,
+     *                        or null to throw it away.
+     */
+    public BatchRunner(Path worldFile, Path outputDirectory)
+    {
+        this.worldFile = worldFile;
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Play several scripts, some of them at the same time.
+     * @param scripts The script files.
+     * @param threads The number of scripts played at the same time.
+     * @return The result of every script, in the order given.
+     * @throws IOException if the world or a script cannot be read.
+     * @throws InterruptedException if interrupted while scripts are running.
+     */
+    public List<Result> runAll(List<Path> scripts, int threads)
+        throws IOException, InterruptedException
+    {
+        if(worldFile != null) {
+            // compiled here, once, so that no script loads an image
+            // another is still writing
+            getWorldImage();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for(Path script : scripts) {
+                futures.add(executor.submit(() -> run(script)));
+            }
+            List<Result> results = new ArrayList<>();
+            for(Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                }
+                catch(ExecutionException e) {
+                    if(e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return results;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Play one script in a fresh copy of the world. Playing stops at the
+     * end of the script or at a quit command.
+     * @param script The script file.
+     * @return The number of commands played and the time taken.
+     * @throws IOException if the world or the script cannot be read.
+     */
+    public Result run(Path script) throws IOException
+    {
+        World world = loadWorld();
+        char[] chars = new String(Files.readAllBytes(script), StandardCharsets.UTF_8).toCharArray();
+
+        OutputStream sink = OutputStream.nullOutputStream();
+        if(outputDirectory != null) {
+            Files.createDirectories(outputDirectory);
+            sink = Files.newOutputStream(outputDirectory.resolve(script.getFileName() + ".out"));
+        }
+        StreamSink out = new StreamSink(new BufferedOutputStream(sink, OUTPUT_BUFFER_SIZE));
+        try {
+            Game game = new Game(world, InputStream.nullInputStream(), out);
+            game.setAdminCommands(true);    // scripts come from the operator, not from players
+            CommandTokenizer tokenizer = new CommandTokenizer(new CommandWords());
+            long[] commands = new long[1];
+            boolean[] finished = new boolean[1];
+
+            long start = System.nanoTime();
+            tokenizer.parseAll(chars, 0, chars.length, command -> {
+                if(!finished[0]) {
+                    commands[0]++;
+                    finished[0] = game.execute(command);
+                    if(out.getPendingLength() >= OUTPUT_BUFFER_SIZE) {
+                        out.flush();
+                    }
+                }
+            });
+            game.finish();
+            out.flush();
+            long nanos = System.nanoTime() - start;
+            return new Result(script, commands[0], nanos);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Load a fresh copy of the world, so scripts cannot disturb each other.
+     */
+    private World loadWorld() throws IOException
+    {
+        if(worldFile == null) {
+            return new Game().getWorld();
+        }
+        return new WorldLoader().loadImage(getWorldImage());
+    }
+
+    /**
+     * Find the image of the world file, compiling it the first time if
+     * the world file is a text definition.
+     */
+    private synchronized Path getWorldImage() throws IOException
+    {
+        if(worldImage == null) {
+            worldImage = new WorldLoader().prepareImage(worldFile);
+        }
+        return worldImage;
+    }
+
+    /**
+     * The outcome of playing one script.
+     */
+    public static class Result
+    {
+        private Path script;
+        private long commands;
+        private long nanos;
+
+        Result(Path script, long commands, long nanos)
+        {
+            this.script = script;
+            this.commands = commands;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return The number of commands played.
+         */
+        public long getCommands()
+        {
+            return commands;
+        }
+
+        /**
+         * @return The time taken to play the commands in nanoseconds.
+         */
+        public long getNanos()
+        {
+            return nanos;
+        }
+
+        /**
+         * @return The number of commands played per second.
+         */
+        public double getCommandsPerSecond()
+        {
+            return commands / (Math.max(nanos, 1) / 1e9);
+        }
+
+        /**
+         * @return A line such as "walk.txt: 1000 commands in 2.1 ms (476190 commands/s)".
+         */
+        public String toString()
+        {
+            return String.format("%s: %d commands in %.1f ms (%.0f commands/s)",
+                                 script, commands, nanos / 1e6, getCommandsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A small harness for the game's benchmarks. A benchmark body performs a
+ * given number of operations; the harness warms it up, then runs it several
+ * times and reports the time per operation, the throughput and the number
+ * of bytes allocated per operation by the measuring thread.
+ *
+ * Bodies return a checksum of their work, which the harness keeps, so that
+ * the JIT compiler cannot remove the work being measured.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class Benchmark
+{
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    // keeps the bodies' checksums alive
+    private static volatile long blackhole;
+
+    /**
+     * The code being measured.
+     */
+    public interface Body
+    {
+        /**
+         * Perform the given number of operations.
+         * @param operations The number of operations to perform.
+         * @return A checksum of the work done.
+         */
+        long run(long operations);
+    }
+
+    /**
+     * The outcome of a measurement.
+     */
+    public static class Result
+    {
+        private String name;
+        private double nanosPerOperation;
+        private double bytesPerOperation;
+
+        /**
+         * Create a result.
+         * @param name The name of the benchmark.
+         * @param nanosPerOperation The average time per operation.
+         * @param bytesPerOperation The average bytes allocated per operation.
+         */
+        public Result(String name, double nanosPerOperation, double bytesPerOperation)
+        {
+            this.name = name;
+            this.nanosPerOperation = nanosPerOperation;
+            this.bytesPerOperation = bytesPerOperation;
+        }
+
+        /**
+         * @return The name of the benchmark.
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * @return The average time per operation in nanoseconds.
+         */
+        public double getNanosPerOperation()
+        {
+            return nanosPerOperation;
+        }
+
+        /**
+         * @return The average number of bytes allocated per operation.
+         */
+        public double getBytesPerOperation()
+        {
+            return bytesPerOperation;
+        }
+
+        /**
+         * @return The number of operations per second.
+         */
+        public double getOperationsPerSecond()
+        {
+            return 1e9 / nanosPerOperation;
+        }
+
+        /**
+         * Return the result in the form:
+         *     name                      123.4 ns/op    8103728 ops/s     48.0 B/op
+         * @return A one-line description of the result.
+         */
+        @Override
+        public String toString()
+        {
+            return String.format("%-55s %10.1f ns/op %12.0f ops/s %10.1f B/op",
+                                 name, nanosPerOperation, getOperationsPerSecond(), bytesPerOperation);
+        }
+    }
+
+    /**
+     * Measure a benchmark body and print the result.
+     * @param name The name of the benchmark.
+     * @param operations The number of operations per round.
+     * @param body The code to measure.
+     * @return The result of the measurement.
+     */
+    public static Result measure(String name, long operations, Body body)
+    {
+        for(int i = 0; i < WARMUP_ROUNDS; i++) {
+            blackhole += body.run(operations);
+        }
+
+        long bestNanos = Long.MAX_VALUE;
+        long totalBytes = 0;
+        for(int i = 0; i < MEASURED_ROUNDS; i++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            blackhole += body.run(operations);
+            long nanos = System.nanoTime() - start;
+            totalBytes += allocatedBytes() - bytesBefore;
+            bestNanos = Math.min(bestNanos, nanos);
+        }
+
+        Result result = new Result(name, (double) bestNanos / operations,
+                                   (double) totalBytes / (operations * MEASURED_ROUNDS));
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Return the number of bytes allocated so far by the current thread,
+     * or 0 if the JVM cannot tell.
+     * @return The bytes allocated by the current thread.
+     */
+    public static long allocatedBytes()
+    {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if(threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,97 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A ChannelSink collects a game's output for a non-blocking channel. Every
+ * flush encodes the output into a buffer of its own and queues it; the
+ * owner of the channel then writes all queued buffers with one gathering
+ * write when the channel can take them, and keeps what did not fit for
+ * the next time. Nothing blocks, so one thread can serve many sinks.
+ *
+ * A sink belongs to the thread serving its channel and must not be
+ * shared.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class ChannelSink extends OutputSink
+{
+    private ArrayDeque<ByteBuffer> pending;     // encoded output not yet written
+    private long pendingBytes;
+    private ByteBuffer[] gather;                // reused array for gathering writes
+
+    /**
+     * Create a sink with nothing to write.
+     */
+    public ChannelSink()
+    {
+        pending = new ArrayDeque<>();
+        gather = new ByteBuffer[8];
+    }
+
+    /**
+     * Write as much of the queued output as the channel takes now.
+     * @param channel The channel to write to.
+     * @return true if all queued output has been written.
+     * @throws IOException if the channel cannot be written.
+     */
+    public boolean writeTo(GatheringByteChannel channel) throws IOException
+    {
+        while(!pending.isEmpty()) {
+            int count = Math.min(pending.size(), 64);
+            if(gather.length < count) {
+                gather = new ByteBuffer[count];
+            }
+            int i = 0;
+            for(ByteBuffer buffer : pending) {
+                if(i == count) {
+                    break;
+                }
+                gather[i++] = buffer;
+            }
+            long written = channel.write(gather, 0, count);
+            pendingBytes -= written;
+            while(!pending.isEmpty() && !pending.peekFirst().hasRemaining()) {
+                pending.pollFirst();
+            }
+            if(written == 0) {
+                break;
+            }
+        }
+        return pending.isEmpty();
+    }
+
+    /**
+     * @return The number of bytes flushed but not yet written to the channel.
+     */
+    public long getPendingBytes()
+    {
+        return pendingBytes;
+    }
+
+    /**
+     * Encode flushed output and queue it for writing.
+     */
+    @Override
+    protected void write(CharSequence text)
+    {
+        int length = text.length();
+        byte[] bytes = new byte[length];
+        for(int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if(c >= 0x80) {
+                bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+                break;
+            }
+            bytes[i] = (byte) c;
+        }
+        pending.addLast(ByteBuffer.wrap(bytes));
+        pendingBytes += bytes.length;
+    }
+}
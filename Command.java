@@ -71,5 +71,18 @@ public class Command
     {
         return (secondWord != null);
     }
+
+    /**
+     * Return the command as it would be typed, for example "take map".
+     * Aliases are written out in full, so "n" becomes "go north".
+     * @return The command as a line of input.
+     */
+    public String toString()
+    {
+        if(secondWord == null) {
+            return commandWord.toString();
+        }
+        return commandWord + " " + secondWord;
+    }
 }
 
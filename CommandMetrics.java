@@ -0,0 +1,219 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * CommandMetrics counts the commands carried out by games and records how
+ * long each kind of command takes, in one LatencyHistogram per command
+ * word. It also counts commands that were not understood, and take and go
+ * commands that failed. Recording takes no locks and allocates nothing, so
+ * every command of every session can be recorded.
+ *
+ * All games record into the shared metrics returned by getShared unless
+ * given others. The shared metrics are registered with the platform MBean
+ * server as "zuul:type=CommandMetrics", and are shown by the "stats"
+ * admin command, which only the console game and BatchRunner allow.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class CommandMetrics implements CommandMetricsMBean
+{
+    // The name the shared metrics are registered under.
+    public static final String OBJECT_NAME = "zuul:type=CommandMetrics";
+
+    private static final CommandWord[] COMMAND_WORDS = CommandWord.values();
+    private static volatile CommandMetrics shared;
+
+    private LatencyHistogram[] latencies;   // indexed by CommandWord ordinal
+    private LongAdder commands;
+    private LongAdder unknownCommands;
+    private LongAdder failedTakes;
+    private LongAdder failedGoes;
+
+    /**
+     * Create metrics with nothing recorded.
+     */
+    public CommandMetrics()
+    {
+        latencies = new LatencyHistogram[COMMAND_WORDS.length];
+        for(int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        commands = new LongAdder();
+        unknownCommands = new LongAdder();
+        failedTakes = new LongAdder();
+        failedGoes = new LongAdder();
+    }
+
+    /**
+     * Return the metrics shared by all games, registering them with the
+     * platform MBean server the first time.
+     * @return The shared metrics.
+     */
+    public static CommandMetrics getShared()
+    {
+        CommandMetrics metrics = shared;
+        if(metrics == null) {
+            synchronized(CommandMetrics.class) {
+                metrics = shared;
+                if(metrics == null) {
+                    metrics = new CommandMetrics();
+                    metrics.register(OBJECT_NAME);
+                    shared = metrics;
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Register these metrics with the platform MBean server. If that is
+     * not possible, the metrics still work but are not visible over JMX.
+     * @param name The object name to register under.
+     * @return true if the metrics were registered.
+     */
+    public boolean register(String name)
+    {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if(server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+            return true;
+        }
+        catch(JMException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Record a command that has been carried out.
+     * @param command The command word.
+     * @param nanos The time the command took.
+     */
+    public void record(CommandWord command, long nanos)
+    {
+        commands.increment();
+        if(command == CommandWord.UNKNOWN) {
+            unknownCommands.increment();
+        }
+        latencies[command.ordinal()].record(nanos);
+    }
+
+    /**
+     * Record a take command that did not pick anything up.
+     */
+    public void recordFailedTake()
+    {
+        failedTakes.increment();
+    }
+
+    /**
+     * Record a go command that did not lead anywhere.
+     */
+    public void recordFailedGo()
+    {
+        failedGoes.increment();
+    }
+
+    /**
+     * Return the latencies of one command word.
+     * @param command The command word.
+     * @return The histogram of its latencies.
+     */
+    public LatencyHistogram getLatencies(CommandWord command)
+    {
+        return latencies[command.ordinal()];
+    }
+
+    @Override
+    public long getCommandCount()
+    {
+        return commands.sum();
+    }
+
+    @Override
+    public long getUnknownCommandCount()
+    {
+        return unknownCommands.sum();
+    }
+
+    @Override
+    public long getFailedTakeCount()
+    {
+        return failedTakes.sum();
+    }
+
+    @Override
+    public long getFailedGoCount()
+    {
+        return failedGoes.sum();
+    }
+
+    @Override
+    public String[] getLatencies()
+    {
+        List<String> lines = new ArrayList<>();
+        for(CommandWord command : COMMAND_WORDS) {
+            LatencyHistogram histogram = latencies[command.ordinal()];
+            if(histogram.getCount() > 0) {
+                lines.add(command + ": " + histogram);
+            }
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    @Override
+    public double getLatencyMicros(String command, double percentile)
+    {
+        for(CommandWord word : COMMAND_WORDS) {
+            if(word.toString().equals(command)) {
+                return latencies[word.ordinal()].getPercentile(percentile / 100) / 1e3;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void reset()
+    {
+        for(LatencyHistogram histogram : latencies) {
+            histogram.reset();
+        }
+        commands.reset();
+        unknownCommands.reset();
+        failedTakes.reset();
+        failedGoes.reset();
+    }
+
+    /**
+     * Return a report of all metrics, one line per command word used,
+     * in the form:
+     *     commands: 1500, unknown: 12, failed take: 3, failed go: 40
+     *     go: count=1200 p50=12.3us p99=80.1us p999=150.0us
+     * @return A description of the metrics.
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder report = new StringBuilder();
+        report.append("commands: ").append(getCommandCount())
+              .append(", unknown: ").append(getUnknownCommandCount())
+              .append(", failed take: ").append(getFailedTakeCount())
+              .append(", failed go: ").append(getFailedGoCount());
+        for(String line : getLatencies()) {
+            report.append('\n').append(line);
+        }
+        return report.toString();
+    }
+}
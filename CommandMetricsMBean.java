@@ -0,0 +1,51 @@
+/**
+ * This interface is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * The management interface of CommandMetrics, as seen in a JMX console
+ * such as jconsole under "zuul:type=CommandMetrics".
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public interface CommandMetricsMBean
+{
+    /**
+     * @return The number of commands carried out.
+     */
+    long getCommandCount();
+
+    /**
+     * @return The number of commands that were not understood.
+     */
+    long getUnknownCommandCount();
+
+    /**
+     * @return The number of take commands that did not pick anything up.
+     */
+    long getFailedTakeCount();
+
+    /**
+     * @return The number of go commands that did not lead anywhere.
+     */
+    long getFailedGoCount();
+
+    /**
+     * @return One line per command word that has been used, in the form
+     *         "go: count=1200 p50=12.3us p99=80.1us p999=150.0us".
+     */
+    String[] getLatencies();
+
+    /**
+     * Return a latency percentile of one command word.
+     * @param command The command word, for example "go".
+     * @param percentile The percentile, for example 99.9.
+     * @return The latency in microseconds, or -1 if the word is unknown.
+     */
+    double getLatencyMicros(String command, double percentile);
+
+    /**
+     * Forget all counts and latencies.
+     */
+    void reset();
+}
@@ -0,0 +1,337 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * The command tokenizer turns lines of input into Commands. It finds the
+ * first two words of a line by scanning characters for whitespace, without
+ * regular expressions, and reads its input into a reusable character
+ * buffer. The command word is looked up directly in the buffer, and second
+ * words are canonicalised through a table of words seen before, so that
+ * parsing a familiar line creates no objects apart from the Command itself.
+ *
+ * A tokenizer keeps state between calls and must not be shared between
+ * threads; every Parser has its own.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class CommandTokenizer
+{
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    // Up to this many distinct second words are kept; later ones are
+    // still parsed, but as new strings, so odd input cannot grow the table.
+    private static final int MAX_WORDS = 4096;
+    // The table of second words starts this big, and doubles as it fills,
+    // so that the many sessions that only use a few words stay small.
+    private static final int INITIAL_WORD_SLOTS = 64;
+
+    private CommandWords commands;
+    private char[] buffer;          // input read from a Reader
+    private int position;           // start of the unparsed input in buffer
+    private int limit;              // end of the valid input in buffer
+    private String[] words;         // canonical second words, open addressing
+    private int wordCount;
+    private int maxLineLength;      // longer lines read are cut short
+    private boolean discarding;     // skipping the rest of a line cut short
+    private int cutLines;           // lines cut short since last taken
+
+    /**
+     * Create a tokenizer that recognises the given command words.
+     * @param commands The command words known to the game.
+     */
+    public CommandTokenizer(CommandWords commands)
+    {
+        this.commands = commands;
+        buffer = new char[INITIAL_BUFFER_SIZE];
+        words = new String[INITIAL_WORD_SLOTS];
+        maxLineLength = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Limit the length of the lines readCommand reads. A longer line is
+     * cut short, and the rest of it up to the next line break is thrown
+     * away as it arrives, so a client that never sends a line break
+     * cannot make the tokenizer buffer its input without end.
+     * @param maxLineLength The most characters of a line that are kept.
+     */
+    public void setMaxLineLength(int maxLineLength)
+    {
+        this.maxLineLength = Math.max(maxLineLength, 1);
+    }
+
+    /**
+     * Return how many lines readCommand has cut short since the last call.
+     * @return The number of lines cut short.
+     */
+    public int takeCutLineCount()
+    {
+        int count = cutLines;
+        cutLines = 0;
+        return count;
+    }
+
+    /**
+     * Read the next line from a Reader and parse it as a command.
+     * Input that has been read but not yet parsed is kept for the next
+     * call, so the same Reader must be passed every time. Lines longer
+     * than the maximum line length are cut short.
+     * @param in The source of input.
+     * @return The next command, or null if the input has ended.
+     * @throws IOException if the input cannot be read.
+     */
+    public Command readCommand(Reader in) throws IOException
+    {
+        int scanned = position;
+        while(true) {
+            for(int i = scanned; i < limit; i++) {
+                if(buffer[i] == '\n') {
+                    if(discarding) {
+                        // the end of a line cut short
+                        discarding = false;
+                        position = i + 1;
+                        continue;
+                    }
+                    Command command = parse(buffer, position, Math.min(i - position, maxLineLength));
+                    if(i - position > maxLineLength) {
+                        cutLines++;
+                    }
+                    position = i + 1;
+                    return command;
+                }
+            }
+            if(discarding) {
+                position = limit;
+            }
+            else if(limit - position > maxLineLength) {
+                // too long, and no line break yet: keep only the start
+                Command command = parse(buffer, position, maxLineLength);
+                cutLines++;
+                discarding = true;
+                position = limit;
+                return command;
+            }
+            scanned = limit;
+
+            // No complete line yet: make room and read more.
+            if(position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                scanned -= position;
+                limit -= position;
+                position = 0;
+            }
+            if(limit == buffer.length) {
+                char[] larger = new char[buffer.length * 2];
+                System.arraycopy(buffer, 0, larger, 0, limit);
+                buffer = larger;
+            }
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if(read < 0) {
+                if(limit == position) {
+                    return null;
+                }
+                // the last line has no line break
+                Command command = parse(buffer, position, limit - position);
+                position = limit;
+                return command;
+            }
+            limit += read;
+        }
+    }
+
+    /**
+     * Parse one line as a command.
+     * @param line The line to parse.
+     * @return The command on the line.
+     */
+    public Command parse(CharSequence line)
+    {
+        int length = line.length();
+        if(length > buffer.length - limit) {
+            // only the unparsed input must be kept
+            compact(length);
+        }
+        int start = limit;
+        for(int i = 0; i < length; i++) {
+            buffer[start + i] = line.charAt(i);
+        }
+        return parse(buffer, start, length);
+    }
+
+    /**
+     * Parse one line held in part of a character array as a command.
+     * @param chars The characters of the line.
+     * @param offset The index of the first character of the line.
+     * @param length The number of characters in the line.
+     * @return The command on the line.
+     */
+    public Command parse(char[] chars, int offset, int length)
+    {
+        int end = offset + length;
+        if(end > offset && chars[end - 1] == '\r') {
+            end--;
+        }
+
+        // Find up to two words on the line.
+        int start1 = skipWhitespace(chars, offset, end);
+        int end1 = skipWord(chars, start1, end);
+        int start2 = skipWhitespace(chars, end1, end);
+        int end2 = skipWord(chars, start2, end);
+        // note: we just ignore the rest of the input line.
+
+        CommandWord commandWord = CommandWord.UNKNOWN;
+        if(end1 > start1) {
+            commandWord = commands.getCommandWord(chars, start1, end1);
+        }
+        String secondWord = null;
+        if(end2 > start2) {
+            secondWord = canonicalWord(chars, start2, end2);
+        }
+        else if(end1 > start1) {
+            // an alias such as "n" may stand for a whole command
+            secondWord = commands.getImpliedSecondWord(chars, start1, end1);
+        }
+        return new Command(commandWord, secondWord);
+    }
+
+    /**
+     * Parse every line held in part of a character array, handing each
+     * command to an action in turn. Empty lines are skipped.
+     * @param chars The characters holding the lines.
+     * @param offset The index of the first character.
+     * @param length The number of characters.
+     * @param action What to do with each command.
+     * @return The number of commands parsed.
+     */
+    public int parseAll(char[] chars, int offset, int length, Consumer<Command> action)
+    {
+        int end = offset + length;
+        int lineStart = offset;
+        int count = 0;
+        while(lineStart < end) {
+            int lineEnd = lineStart;
+            while(lineEnd < end && chars[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            if(skipWhitespace(chars, lineStart, lineEnd) < lineEnd) {
+                action.accept(parse(chars, lineStart, lineEnd - lineStart));
+                count++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Move the unparsed input to the start of the buffer, growing the
+     * buffer if needed to leave the given amount of free space after it.
+     */
+    private void compact(int space)
+    {
+        int pending = limit - position;
+        char[] target = buffer;
+        if(pending + space > buffer.length) {
+            target = new char[Math.max(buffer.length * 2, pending + space)];
+        }
+        System.arraycopy(buffer, position, target, 0, pending);
+        buffer = target;
+        position = 0;
+        limit = pending;
+    }
+
+    /**
+     * Return the canonical string for a word, creating it only if the word
+     * has not been seen before.
+     */
+    private String canonicalWord(char[] chars, int start, int end)
+    {
+        int hash = 0;
+        for(int i = start; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int mask = words.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while(words[slot] != null) {
+            String word = words[slot];
+            if(word.hashCode() == hash && word.length() == end - start && equals(word, chars, start)) {
+                return word;
+            }
+            slot = (slot + 1) & mask;
+        }
+        String word = new String(chars, start, end - start);
+        if(wordCount < MAX_WORDS) {
+            if(2 * (wordCount + 1) > words.length) {
+                growWords();
+                mask = words.length - 1;
+                slot = (hash ^ (hash >>> 16)) & mask;
+                while(words[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+            }
+            words[slot] = word;
+            wordCount++;
+        }
+        return word;
+    }
+
+    /**
+     * Double the table of second words, keeping it at most half full.
+     */
+    private void growWords()
+    {
+        String[] old = words;
+        words = new String[old.length * 2];
+        int mask = words.length - 1;
+        for(String word : old) {
+            if(word != null) {
+                int hash = word.hashCode();
+                int slot = (hash ^ (hash >>> 16)) & mask;
+                while(words[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                words[slot] = word;
+            }
+        }
+    }
+
+    /**
+     * Check whether a string equals the characters starting at an index.
+     */
+    private static boolean equals(String word, char[] chars, int start)
+    {
+        for(int i = 0; i < word.length(); i++) {
+            if(word.charAt(i) != chars[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the index of the first non-whitespace character at or after
+     * start, or end if there is none.
+     */
+    private static int skipWhitespace(char[] chars, int start, int end)
+    {
+        while(start < end && Character.isWhitespace(chars[start])) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Return the index of the first whitespace character at or after
+     * start, or end if there is none.
+     */
+    private static int skipWord(char[] chars, int start, int end)
+    {
+        while(start < end && !Character.isWhitespace(chars[start])) {
+            start++;
+        }
+        return start;
+    }
+}
@@ -14,7 +14,7 @@ public enum CommandWord
     // corresponding user interface string.
     GO("go"), QUIT("quit"), HELP("help"), LOOK("look"), 
     TAKE("take"), DROP("drop"), INVENTORY("inventory"), BACK("back"), 
-    ITEMS("items"), EAT("eat"), UNKNOWN("?");
+    ITEMS("items"), EAT("eat"), TRAVEL("travel"), SAVE("save"), STATS("stats"), FIND("find"), UNKNOWN("?");
     
     // The command string.
     private String commandString;
@@ -36,4 +36,14 @@ public enum CommandWord
     {
         return commandString;
     }
+
+    /**
+     * Check whether this is an admin command, which only games allowing
+     * admin commands carry out.
+     * @return true for an admin command.
+     */
+    public boolean isAdmin()
+    {
+        return this == STATS;
+    }
 }
@@ -1,71 +1,379 @@
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * This class is part of the "World of Zuul" application. 
+ * This class is part of the "World of Zuul" application.
  * "World of Zuul" is a text based adventure game.
- * 
+ *
  * This class holds an enumeration of all command words known to the game.
  * It is used to recognize commands as they are typed in and provides
  * a mapping between command strings and CommandWord enumerations.
  *
+ * Besides the full command words, players may type any prefix that belongs
+ * to only one command ("inv" for inventory) and a few aliases, some of which
+ * also supply the second word ("n" for "go north"). All of these are held
+ * in a trie that is built once from CommandWord.values() and never changes,
+ * so a lookup takes one array step per character and creates no strings.
+ *
+ * A word that is none of these, but is one typing mistake away from a
+ * single command word ("tkae" for take), stands for that command. Such
+ * words are only looked for when the trie finds nothing, so correctly
+ * typed commands cost no more than before.
+ *
  * @author Michael Kölling, David J. Barnes, oliviad118
  * @version 2025.11.11
  */
 
 public class CommandWords
 {
-    // A mapping between a command word and the CommandWord
-    // associated with it.
-    private HashMap<String, CommandWord> validCommands;
+    // Aliases: the alias, the command word it stands for, and the second
+    // word it implies (or null).
+    private static final String[][] ALIASES = {
+        { "n", "go", "north" }, { "s", "go", "south" },
+        { "e", "go", "east" },  { "w", "go", "west" },
+        { "u", "go", "up" },    { "d", "go", "down" },
+        { "l", "look", null },  { "i", "inventory", null },
+        { "t", "take", null },
+    };
+
+    // Shorter words are too easily one mistake away from the wrong command.
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    // The trie only holds lower case letters.
+    private static final int ALPHABET = 26;
+
+    // CommandWord.values() copies the array on every call, so keep one copy.
+    private static final CommandWord[] COMMAND_WORDS = CommandWord.values();
+
+    // The trie, shared by all CommandWords objects. Node 0 is the root.
+    // children[node * ALPHABET + letter] is the child node, or 0 if none.
+    private static final int[] children;
+    // The command a node's word stands for, or null if none or ambiguous.
+    private static final CommandWord[] nodeCommands;
+    // The second word implied by an alias ending at a node, or null.
+    private static final String[] nodeSecondWords;
+    // The full command words, for words the trie does not know.
+    private static final FuzzyMatcher fuzzyWords = new FuzzyMatcher();
+
+    static {
+        TrieBuilder builder = new TrieBuilder();
+        for(CommandWord command : COMMAND_WORDS) {
+            if(command != CommandWord.UNKNOWN) {
+                builder.addWord(command.toString(), command);
+                if(command != CommandWord.QUIT) {
+                    // ending the game by a typing mistake is too costly
+                    fuzzyWords.add(command.toString());
+                }
+            }
+        }
+        for(String[] alias : ALIASES) {
+            CommandWord command = null;
+            for(CommandWord candidate : COMMAND_WORDS) {
+                if(candidate.toString().equals(alias[1])) {
+                    command = candidate;
+                }
+            }
+            builder.addAlias(alias[0], command, alias[2]);
+        }
+        children = builder.getChildren();
+        nodeCommands = builder.getCommands();
+        nodeSecondWords = builder.getSecondWords();
+    }
 
     /**
      * Constructor - initialise the command words.
      */
     public CommandWords()
     {
-        validCommands = new HashMap<>();
-        for(CommandWord command : CommandWord.values()) {
-            if(command != CommandWord.UNKNOWN) {
-                validCommands.put(command.toString(), command);
-            }
-        }
+        // the trie is built once, when the class is loaded
     }
 
     /**
-     * Find the CommandWord associated with a command word.
+     * Find the CommandWord associated with a command word. The word may
+     * also be a unique prefix of a command word, or an alias.
      * @param commandWord The word to look up.
      * @return The CommandWord corresponding to commandWord, or UNKNOWN
      *         if it is not a valid command word.
      */
     public CommandWord getCommandWord(String commandWord)
     {
-        CommandWord command = validCommands.get(commandWord);
-        if(command != null) {
-            return command;
-        }
-        else {
+        if(commandWord == null) {
             return CommandWord.UNKNOWN;
         }
+        CommandWord command = commandAt(findNode(commandWord, 0, commandWord.length()));
+        if(command == CommandWord.UNKNOWN && commandWord.length() >= MIN_FUZZY_LENGTH) {
+            command = guess(commandWord);
+        }
+        return command;
+    }
+
+    /**
+     * Find the CommandWord associated with a command word held in part
+     * of a character array. No strings are created by the lookup.
+     * @param chars The characters holding the word.
+     * @param start The index of the first character of the word.
+     * @param end The index after the last character of the word.
+     * @return The CommandWord corresponding to the word, or UNKNOWN
+     *         if it is not a valid command word.
+     */
+    public CommandWord getCommandWord(char[] chars, int start, int end)
+    {
+        CommandWord command = commandAt(findNode(chars, start, end));
+        if(command == CommandWord.UNKNOWN && end - start >= MIN_FUZZY_LENGTH) {
+            command = guess(new String(chars, start, end - start));
+        }
+        return command;
     }
-    
+
     /**
-     * Check whether a given String is a valid command word. 
+     * Return the second word implied by an alias, for example "north"
+     * for "n", which stands for "go north".
+     * @param commandWord The word to look up.
+     * @return The implied second word, or null if the word is not an
+     *         alias with a second word.
+     */
+    public String getImpliedSecondWord(String commandWord)
+    {
+        if(commandWord == null) {
+            return null;
+        }
+        int node = findNode(commandWord, 0, commandWord.length());
+        return node < 0 ? null : nodeSecondWords[node];
+    }
+
+    /**
+     * Return the second word implied by an alias held in part of a
+     * character array.
+     * @param chars The characters holding the word.
+     * @param start The index of the first character of the word.
+     * @param end The index after the last character of the word.
+     * @return The implied second word, or null if the word is not an
+     *         alias with a second word.
+     */
+    public String getImpliedSecondWord(char[] chars, int start, int end)
+    {
+        int node = findNode(chars, start, end);
+        return node < 0 ? null : nodeSecondWords[node];
+    }
+
+    /**
+     * Check whether a given String is a valid command word, a unique
+     * prefix of one, or an alias.
      * @param aString The string to check
      * @return true if it is, false if it isn't.
      */
     public boolean isCommand(String aString)
     {
-        return validCommands.containsKey(aString);
+        return getCommandWord(aString) != CommandWord.UNKNOWN;
+    }
+
+    /**
+     * Print all valid commands to the terminal.
+     */
+    public void showAll()
+    {
+        OutputSink out = new ConsoleSink();
+        showAll(out);
+        out.flush();
+    }
+
+    /**
+     * Print all valid commands to the given output.
+     * @param out Where the commands are printed.
+     */
+    public void showAll(OutputSink out)
+    {
+        showAll(out, true);
+    }
+
+    /**
+     * Print all valid commands to the given output, with or without the
+     * admin commands.
+     * @param out Where the commands are printed.
+     * @param withAdmin true to print the admin commands too.
+     */
+    public void showAll(OutputSink out, boolean withAdmin)
+    {
+        for(CommandWord command : COMMAND_WORDS) {
+            if(command != CommandWord.UNKNOWN && (withAdmin || !command.isAdmin())) {
+                out.print(command.toString());
+                out.print("  ");
+            }
+        }
+        out.println();
     }
 
     /**
-     * Print all valid commands to System.out.
+     * Return the command a mistyped word stands for: the only command word
+     * one edit away from it, or UNKNOWN if there is none or more than one.
      */
-    public void showAll() 
+    private static CommandWord guess(String word)
     {
-        for(String command : validCommands.keySet()) {
-            System.out.print(command + "  ");
+        List<String> close = fuzzyWords.suggest(word, 1);
+        if(close.size() != 1) {
+            return CommandWord.UNKNOWN;
+        }
+        for(CommandWord command : COMMAND_WORDS) {
+            if(command.toString().equals(close.get(0))) {
+                return command;
+            }
+        }
+        return CommandWord.UNKNOWN;
+    }
+
+    /**
+     * Return the command a trie node stands for, or UNKNOWN.
+     */
+    private static CommandWord commandAt(int node)
+    {
+        if(node < 0 || nodeCommands[node] == null) {
+            return CommandWord.UNKNOWN;
+        }
+        return nodeCommands[node];
+    }
+
+    /**
+     * Walk the trie along a word. Return the node reached, or -1 if the
+     * word is empty or leaves the trie.
+     */
+    private static int findNode(CharSequence word, int start, int end)
+    {
+        if(start >= end) {
+            return -1;
+        }
+        int node = 0;
+        for(int i = start; i < end && node >= 0; i++) {
+            node = step(node, word.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Walk the trie along a word held in a character array.
+     */
+    private static int findNode(char[] chars, int start, int end)
+    {
+        if(start >= end) {
+            return -1;
+        }
+        int node = 0;
+        for(int i = start; i < end && node >= 0; i++) {
+            node = step(node, chars[i]);
+        }
+        return node;
+    }
+
+    /**
+     * Return the child of a node for a character, or -1 if there is none.
+     */
+    private static int step(int node, char c)
+    {
+        int letter = c - 'a';
+        if(letter < 0 || letter >= ALPHABET) {
+            return -1;
+        }
+        int child = children[node * ALPHABET + letter];
+        return child == 0 ? -1 : child;
+    }
+
+    /**
+     * Builds the trie before it is frozen into arrays. A node's command is
+     * the command whose full word or alias ends there; otherwise it is the
+     * command of the only command word passing through it, which makes
+     * every unique prefix resolve to its command.
+     */
+    private static class TrieBuilder
+    {
+        private ArrayList<int[]> children = new ArrayList<>();
+        private ArrayList<CommandWord> exact = new ArrayList<>();
+        private ArrayList<CommandWord> prefix = new ArrayList<>();
+        private ArrayList<Boolean> ambiguous = new ArrayList<>();
+        private ArrayList<String> secondWords = new ArrayList<>();
+
+        TrieBuilder()
+        {
+            newNode();
+        }
+
+        /**
+         * Add a full command word; all its prefixes may stand for it.
+         */
+        void addWord(String word, CommandWord command)
+        {
+            int node = 0;
+            for(int i = 0; i < word.length(); i++) {
+                node = child(node, word.charAt(i));
+                if(prefix.get(node) == null) {
+                    prefix.set(node, command);
+                }
+                else if(prefix.get(node) != command) {
+                    ambiguous.set(node, true);
+                }
+            }
+            exact.set(node, command);
+        }
+
+        /**
+         * Add an alias, which only stands for its command when typed in full.
+         */
+        void addAlias(String alias, CommandWord command, String secondWord)
+        {
+            int node = 0;
+            for(int i = 0; i < alias.length(); i++) {
+                node = child(node, alias.charAt(i));
+            }
+            exact.set(node, command);
+            secondWords.set(node, secondWord);
+        }
+
+        int[] getChildren()
+        {
+            int[] result = new int[children.size() * ALPHABET];
+            for(int node = 0; node < children.size(); node++) {
+                System.arraycopy(children.get(node), 0, result, node * ALPHABET, ALPHABET);
+            }
+            return result;
+        }
+
+        CommandWord[] getCommands()
+        {
+            CommandWord[] result = new CommandWord[exact.size()];
+            for(int node = 0; node < result.length; node++) {
+                if(exact.get(node) != null) {
+                    result[node] = exact.get(node);
+                }
+                else if(!ambiguous.get(node)) {
+                    result[node] = prefix.get(node);
+                }
+            }
+            return result;
+        }
+
+        String[] getSecondWords()
+        {
+            return secondWords.toArray(new String[0]);
+        }
+
+        private int child(int node, char c)
+        {
+            int letter = c - 'a';
+            if(letter < 0 || letter >= ALPHABET) {
+                throw new IllegalArgumentException("Command words must be lower case letters: " + c);
+            }
+            if(children.get(node)[letter] == 0) {
+                children.get(node)[letter] = newNode();
+            }
+            return children.get(node)[letter];
+        }
+
+        private int newNode()
+        {
+            children.add(new int[ALPHABET]);
+            exact.add(null);
+            prefix.add(null);
+            ambiguous.add(false);
+            secondWords.add(null);
+            return children.size() - 1;
         }
-        System.out.println();
     }
 }
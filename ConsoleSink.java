@@ -0,0 +1,34 @@
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A ConsoleSink sends a game's output to the terminal. It writes to the
+ * process's standard output directly rather than through System.out, so
+ * the output of a command is one write, without System.out's locking and
+ * flushing for every line.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class ConsoleSink extends StreamSink
+{
+    /**
+     * Create a sink writing to standard output.
+     */
+    public ConsoleSink()
+    {
+        super(new FileOutputStream(FileDescriptor.out));
+    }
+
+    /**
+     * Flush the sink. Standard output itself is left open.
+     */
+    @Override
+    public void close()
+    {
+        flush();
+    }
+}
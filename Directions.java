@@ -0,0 +1,100 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * Directions gives every exit direction used in the game a small number,
+ * so that exits can be stored as numbers instead of strings. The usual
+ * directions (north, east, south, west, up and down) always have the
+ * numbers 0 to 5; other directions are numbered as they are first seen.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class Directions
+{
+    // Direction ids are stored as shorts in the exit graph.
+    private static final int MAX_DIRECTIONS = Short.MAX_VALUE;
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[16];
+    private static int count;
+
+    static {
+        for(String direction : new String[] { "north", "east", "south", "west", "up", "down" }) {
+            intern(direction);
+        }
+    }
+
+    /**
+     * Return the number of a direction, giving it a new number if it has
+     * not been seen before.
+     * @param direction The direction, for example "north".
+     * @return The number of the direction.
+     */
+    public static int intern(String direction)
+    {
+        Integer id = ids.get(direction);
+        if(id != null) {
+            return id;
+        }
+        synchronized(Directions.class) {
+            id = ids.get(direction);
+            if(id == null) {
+                if(count == MAX_DIRECTIONS) {
+                    throw new IllegalStateException("Too many different exit directions");
+                }
+                id = count;
+                String[] newNames = names;
+                if(id == newNames.length) {
+                    newNames = Arrays.copyOf(newNames, newNames.length * 2);
+                }
+                newNames[id] = direction;
+                names = newNames;
+                count++;
+                ids.put(direction, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Return the number of a direction without numbering new directions.
+     * @param direction The direction, for example "north".
+     * @return The number of the direction, or -1 if it has none.
+     */
+    public static int find(String direction)
+    {
+        Integer id = ids.get(direction);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Return the direction with a number.
+     * @param id The number of the direction.
+     * @return The direction, for example "north".
+     */
+    public static String name(int id)
+    {
+        return names[id];
+    }
+
+    /**
+     * Return the direction opposite a usual direction, so that a player
+     * who went north can be said to arrive from the south.
+     * @param direction The direction, for example "north".
+     * @return The opposite direction, or null if the direction is not
+     *         one of the usual ones.
+     */
+    public static String opposite(String direction)
+    {
+        int id = find(direction);
+        if(id < 0 || id > 5) {
+            return null;
+        }
+        // north, east, south and west are 0 to 3; up and down are 4 and 5
+        return names[id < 4 ? (id + 2) % 4 : 9 - id];
+    }
+}
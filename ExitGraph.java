@@ -0,0 +1,192 @@
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * An ExitGraph stores the exits of all rooms of a world in three packed
+ * arrays instead of one HashMap per room (a compressed sparse row layout).
+ * The exits of room r are at the positions firstExit[r] up to, but not
+ * including, firstExit[r + 1]. At each position, directions holds the
+ * number the Directions class gives the exit's direction, and targets
+ * holds the id of the room the exit leads to.
+ *
+ * Rooms and their exits are referred to by their ids in the world. The
+ * set of exits is fixed when the graph is built, but the room an existing
+ * exit leads to may be changed. Exits to rooms outside the world have no
+ * id to refer to, so they are kept by their rooms instead; an exit of the
+ * graph that is changed to lead to such a room gets the target -1, which
+ * means it is no longer in the graph.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class ExitGraph
+{
+    private World world;
+    private int[] firstExit;
+    private short[] directions;
+    private int[] targets;
+
+    /**
+     * Create an exit graph from its arrays.
+     * @param world The world whose rooms the graph connects.
+     * @param firstExit For every room id, the position of its first exit,
+     *                  followed by the total number of exits.
+     * @param directions The direction number of every exit.
+     * @param targets The id of the room every exit leads to.
+     */
+    public ExitGraph(World world, int[] firstExit, short[] directions, int[] targets)
+    {
+        this.world = world;
+        this.firstExit = firstExit;
+        this.directions = directions;
+        this.targets = targets;
+    }
+
+    /**
+     * Build an exit graph holding the current exits of all rooms of a
+     * world, leaving out exits to rooms outside it.
+     * @param world The world to build the graph for.
+     * @return The exit graph.
+     */
+    public static ExitGraph build(World world)
+    {
+        int roomCount = world.getRoomCount();
+        int[] firstExit = new int[roomCount + 1];
+        for(int id = 0; id < roomCount; id++) {
+            Room room = world.getRoom(id);
+            int count = 0;
+            for(String direction : room.getExitDirections()) {
+                if(isInWorld(world, room.getExit(direction))) {
+                    count++;
+                }
+            }
+            firstExit[id + 1] = firstExit[id] + count;
+        }
+        short[] directions = new short[firstExit[roomCount]];
+        int[] targets = new int[firstExit[roomCount]];
+        for(int id = 0; id < roomCount; id++) {
+            Room room = world.getRoom(id);
+            int exit = firstExit[id];
+            for(String direction : room.getExitDirections()) {
+                Room neighbor = room.getExit(direction);
+                if(isInWorld(world, neighbor)) {
+                    directions[exit] = (short) Directions.intern(direction);
+                    targets[exit] = neighbor.getId();
+                    exit++;
+                }
+            }
+        }
+        return new ExitGraph(world, firstExit, directions, targets);
+    }
+
+    /**
+     * Check whether an exit's room is in the world, and so can be kept
+     * in the world's graph.
+     */
+    private static boolean isInWorld(World world, Room neighbor)
+    {
+        return neighbor != null && neighbor.getWorld() == world && neighbor.getId() >= 0;
+    }
+
+    /**
+     * Return the id of the room an exit leads to.
+     * @param room The id of the room the exit leaves from.
+     * @param direction The direction number of the exit.
+     * @return The id of the neighbouring room, or -1 if there is no such exit.
+     */
+    public int getTarget(int room, int direction)
+    {
+        if(room < 0 || room >= firstExit.length - 1) {
+            return -1;
+        }
+        for(int exit = firstExit[room]; exit < firstExit[room + 1]; exit++) {
+            if(directions[exit] == direction) {
+                return targets[exit];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Change the room an existing exit leads to.
+     * @param room The id of the room the exit leaves from.
+     * @param direction The direction number of the exit.
+     * @param target The id of the new neighbouring room, or -1 to take
+     *               the exit out of the graph.
+     * @return true if the exit was changed, false if the graph has no such exit.
+     */
+    public boolean setTarget(int room, int direction, int target)
+    {
+        if(room < 0 || room >= firstExit.length - 1) {
+            return false;
+        }
+        for(int exit = firstExit[room]; exit < firstExit[room + 1]; exit++) {
+            if(directions[exit] == direction) {
+                targets[exit] = target;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The number of rooms in the graph.
+     */
+    public int getRoomCount()
+    {
+        return firstExit.length - 1;
+    }
+
+    /**
+     * @return The number of exits in the graph.
+     */
+    public int getExitCount()
+    {
+        return targets.length;
+    }
+
+    /**
+     * @param room The id of a room.
+     * @return The position of the room's first exit.
+     */
+    public int getFirstExit(int room)
+    {
+        return firstExit[room];
+    }
+
+    /**
+     * @param room The id of a room.
+     * @return The position after the room's last exit.
+     */
+    public int getEndExit(int room)
+    {
+        return firstExit[room + 1];
+    }
+
+    /**
+     * @param exit The position of an exit.
+     * @return The direction number of the exit.
+     */
+    public int getDirectionAt(int exit)
+    {
+        return directions[exit];
+    }
+
+    /**
+     * @param exit The position of an exit.
+     * @return The id of the room the exit leads to.
+     */
+    public int getTargetAt(int exit)
+    {
+        return targets[exit];
+    }
+
+    /**
+     * @param id The id of a room.
+     * @return The room with that id.
+     */
+    public Room getRoom(int id)
+    {
+        return world.getRoom(id);
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * Compares the heap used per room, and the speed of Room.getExit, with
+ * exits kept in a HashMap in every room and with exits compacted into the
+ * world's ExitGraph. The world is a grid of rooms joined to their
+ * neighbours to the north, east, south and west.
+ *
+ *     java ExitGraphBenchmark [rooms]
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class ExitGraphBenchmark
+{
+    private static final String[] DIRECTIONS = { "north", "east", "south", "west" };
+
+    /**
+     * Run the benchmark.
+     * @param args The optional number of rooms (default 200,000).
+     */
+    public static void main(String[] args)
+    {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        long empty = usedHeap();
+        World world = createGrid(roomCount);
+        long withMaps = usedHeap();
+        world.compactExits();
+        long compacted = usedHeap();
+
+        // the room descriptions are shared, so the difference is rooms and exits
+        System.out.printf("Heap per room with HashMap exits: %.1f bytes%n",
+                          (double) (withMaps - empty) / roomCount);
+        System.out.printf("Heap per room with an ExitGraph:  %.1f bytes%n",
+                          (double) (compacted - empty) / roomCount);
+
+        World mapWorld = createGrid(roomCount);
+        measureLookups("getExit with HashMap exits", mapWorld);
+        measureLookups("getExit with an ExitGraph", world);
+    }
+
+    /**
+     * Create a square grid of rooms, each with exits to its neighbours.
+     */
+    private static World createGrid(int roomCount)
+    {
+        int side = (int) Math.ceil(Math.sqrt(roomCount));
+        World world = new World(roomCount);
+        String description = "in a room of the grid";
+        for(int id = 0; id < roomCount; id++) {
+            world.addRoom("r" + id, new Room(description));
+        }
+        for(int id = 0; id < roomCount; id++) {
+            Room room = world.getRoom(id);
+            int x = id % side;
+            if(id >= side) {
+                room.setExit("north", world.getRoom(id - side));
+            }
+            if(x + 1 < side && id + 1 < roomCount) {
+                room.setExit("east", world.getRoom(id + 1));
+            }
+            if(id + side < roomCount) {
+                room.setExit("south", world.getRoom(id + side));
+            }
+            if(x > 0) {
+                room.setExit("west", world.getRoom(id - 1));
+            }
+        }
+        return world;
+    }
+
+    /**
+     * Measure walking exits of random rooms.
+     */
+    private static void measureLookups(String name, World world)
+    {
+        int roomCount = world.getRoomCount();
+        Benchmark.measure(name, 2_000_000, operations -> {
+            long sum = 0;
+            int id = 0;
+            for(long i = 0; i < operations; i++) {
+                Room next = world.getRoom(id).getExit(DIRECTIONS[(int) (i & 3)]);
+                sum += next == null ? 0 : next.getId();
+                id = (int) ((id + 7919L) % roomCount);
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Return the heap in use after collecting garbage.
+     */
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,314 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A FuzzyMatcher finds the known words closest to a mistyped one, so that
+ * "flashlite" can be taken to mean "flashlight". Distances are counted in
+ * edits: inserting, deleting or changing a letter, or swapping two
+ * neighbouring letters.
+ *
+ * Words are held in a symmetric delete index: every word is stored under
+ * each string that can be made from its first PREFIX_LENGTH letters by
+ * deleting up to MAX_DELETES of them. A typed word generates the same
+ * deletes of its own prefix, and any known word sharing one of them is a
+ * candidate, whose full distance is then checked. A lookup therefore costs
+ * a few dozen hash lookups however many words are known. Only the prefix
+ * is indexed to keep the index small; a word may still differ by more
+ * edits after the prefix, up to the limit given by maxDistance.
+ *
+ * Words may be added while other threads look words up.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class FuzzyMatcher
+{
+    // Only this many leading letters of a word are indexed.
+    private static final int PREFIX_LENGTH = 7;
+    // The most letters deleted from a prefix in the index.
+    private static final int MAX_DELETES = 2;
+
+    // Each delete maps to the word it came from, or to a String[] when
+    // several words share it.
+    private ConcurrentHashMap<String, Object> deletes;
+    private ConcurrentHashMap<String, Boolean> words;
+
+    /**
+     * Create a matcher that knows no words.
+     */
+    public FuzzyMatcher()
+    {
+        deletes = new ConcurrentHashMap<>();
+        words = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Add a word to the matcher.
+     * @param word The word to add.
+     * @return true if the word was new, false if it was already known.
+     */
+    public boolean add(String word)
+    {
+        if(words.putIfAbsent(word, Boolean.TRUE) != null) {
+            return false;
+        }
+        List<String> keys = new ArrayList<>();
+        collectDeletes(prefix(word), MAX_DELETES, keys);
+        for(String key : keys) {
+            deletes.merge(key, word, FuzzyMatcher::join);
+        }
+        return true;
+    }
+
+    /**
+     * @param word The word to look for.
+     * @return true if the word itself is known.
+     */
+    public boolean contains(String word)
+    {
+        return words.containsKey(word);
+    }
+
+    /**
+     * @return The number of words known.
+     */
+    public int size()
+    {
+        return words.size();
+    }
+
+    /**
+     * Return the known words close enough to a word to be meant by it,
+     * closest first. The word itself is included if it is known.
+     * @param word The word as typed.
+     * @return The known words within maxDistance of the word.
+     */
+    public List<String> suggest(String word)
+    {
+        return suggest(word, maxDistance(word.length()));
+    }
+
+    /**
+     * Return the known words within a distance of a word, closest first.
+     * @param word The word as typed.
+     * @param limit The largest distance allowed.
+     * @return The known words within limit edits of the word.
+     */
+    public List<String> suggest(String word, int limit)
+    {
+        List<String> keys = new ArrayList<>();
+        collectDeletes(prefix(word), Math.min(limit, MAX_DELETES), keys);
+        List<String> found = new ArrayList<>();
+        List<Integer> distances = new ArrayList<>();
+        for(String key : keys) {
+            Object entry = deletes.get(key);
+            if(entry instanceof String) {
+                consider(word, (String) entry, limit, found, distances);
+            }
+            else if(entry != null) {
+                for(String candidate : (String[]) entry) {
+                    consider(word, candidate, limit, found, distances);
+                }
+            }
+        }
+        // few candidates: an insertion sort by distance is enough
+        for(int i = 1; i < found.size(); i++) {
+            for(int j = i; j > 0 && distances.get(j) < distances.get(j - 1); j--) {
+                distances.set(j, distances.set(j - 1, distances.get(j)));
+                found.set(j, found.set(j - 1, found.get(j)));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Return the known word a mistyped word most likely means, among the
+     * words that pass a test. If two such words are equally close, the
+     * word is ambiguous and nothing is returned.
+     * @param word The word as typed.
+     * @param present Which known words may be returned.
+     * @return The closest such word, or null if there is none or no
+     *         single closest one.
+     */
+    public String closest(String word, Predicate<String> present)
+    {
+        String best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        int limit = maxDistance(word.length());
+        for(String candidate : suggest(word, limit)) {
+            if(present.test(candidate)) {
+                int distance = distance(word, candidate, limit);
+                if(distance < bestDistance) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+                else if(distance == bestDistance) {
+                    return null;
+                }
+                else {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Return the word of a collection a mistyped word most likely means,
+     * by comparing it with every word. Meant for small collections, such
+     * as the items in one room, that have no index of their own.
+     * @param word The word as typed.
+     * @param candidates The words it may mean.
+     * @return The closest candidate within maxDistance, or null if there
+     *         is none or no single closest one.
+     */
+    public static String closest(String word, Iterable<String> candidates)
+    {
+        String best = null;
+        boolean tied = false;
+        int limit = maxDistance(word.length());
+        int bestDistance = limit + 1;
+        for(String candidate : candidates) {
+            int distance = distance(word, candidate, limit);
+            if(distance < bestDistance) {
+                best = candidate;
+                bestDistance = distance;
+                tied = false;
+            }
+            else if(distance == bestDistance && distance <= limit) {
+                tied = true;
+            }
+        }
+        return tied ? null : best;
+    }
+
+    /**
+     * Return how many edits a typed word of a given length may be away
+     * from the word it means: one for short words, two for most, and
+     * three for long ones.
+     * @param length The length of the typed word.
+     * @return The number of edits allowed.
+     */
+    public static int maxDistance(int length)
+    {
+        if(length < 3) {
+            return 0;
+        }
+        if(length < 5) {
+            return 1;
+        }
+        return length < 9 ? 2 : 3;
+    }
+
+    /**
+     * Return the number of edits between two words, where swapping two
+     * neighbouring letters counts as one edit. Counting stops early when
+     * the distance is known to be over a limit.
+     * @param a One word.
+     * @param b The other word.
+     * @param limit The largest distance of interest.
+     * @return The distance, or limit + 1 if it is larger than limit.
+     */
+    public static int distance(String a, String b, int limit)
+    {
+        int n = a.length();
+        int m = b.length();
+        if(Math.abs(n - m) > limit) {
+            return limit + 1;
+        }
+        // three rows of the edit table: two rows back, the last, the current
+        int[] before = new int[m + 1];
+        int[] last = new int[m + 1];
+        int[] row = new int[m + 1];
+        for(int j = 0; j <= m; j++) {
+            last[j] = j;
+        }
+        for(int i = 1; i <= n; i++) {
+            row[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for(int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int cost = ca == cb ? 0 : 1;
+                int value = Math.min(Math.min(last[j] + 1, row[j - 1] + 1), last[j - 1] + cost);
+                if(i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    value = Math.min(value, before[j - 2] + 1);
+                }
+                row[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if(rowMin > limit) {
+                return limit + 1;
+            }
+            int[] spare = before;
+            before = last;
+            last = row;
+            row = spare;
+        }
+        return Math.min(last[m], limit + 1);
+    }
+
+    /**
+     * Check a candidate and keep it if it is close enough and not kept yet.
+     */
+    private static void consider(String word, String candidate, int limit,
+                                 List<String> found, List<Integer> distances)
+    {
+        int distance = distance(word, candidate, limit);
+        if(distance <= limit && !found.contains(candidate)) {
+            found.add(candidate);
+            distances.add(distance);
+        }
+    }
+
+    /**
+     * Collect a string and everything made from it by deleting up to the
+     * given number of letters. The same string may be collected twice.
+     */
+    private static void collectDeletes(String word, int depth, List<String> keys)
+    {
+        keys.add(word);
+        if(depth > 0 && word.length() > 1) {
+            for(int i = 0; i < word.length(); i++) {
+                if(i > 0 && word.charAt(i) == word.charAt(i - 1)) {
+                    continue;   // deleting either of two equal letters gives the same
+                }
+                collectDeletes(word.substring(0, i) + word.substring(i + 1), depth - 1, keys);
+            }
+        }
+    }
+
+    /**
+     * Return the part of a word that is indexed.
+     */
+    private static String prefix(String word)
+    {
+        return word.length() > PREFIX_LENGTH ? word.substring(0, PREFIX_LENGTH) : word;
+    }
+
+    /**
+     * Join two entries of the delete map into one.
+     */
+    private static Object join(Object old, Object added)
+    {
+        String word = (String) added;
+        if(old instanceof String) {
+            return old.equals(word) ? old : new String[] { (String) old, word };
+        }
+        String[] words = (String[]) old;
+        for(String known : words) {
+            if(known.equals(word)) {
+                return old;
+            }
+        }
+        String[] joined = new String[words.length + 1];
+        System.arraycopy(words, 0, joined, 0, words.length);
+        joined[words.length] = word;
+        return joined;
+    }
+}
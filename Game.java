@@ -1,3 +1,8 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.List;
+
 /**
  * This class is the main class of the "World of Zuul" application. 
  * "World of Zuul" is a text based adventure game where players navigate
@@ -16,20 +21,80 @@
 
 public class Game 
 {
+    private World world;
     private Parser parser;
     private Room currentRoom;
     private Player player;
+    private OutputSink out;                 // where all game output goes
+    private LatencyHistogram latencies;     // command latencies, may be null
+    private CommandMetrics metrics;         // per-command counts and latencies
+    private GamePersistence persistence;    // where the game is saved, may be null
+    private TranscriptLogger transcript;    // where commands and output are recorded, may be null
+    private long transcriptSession;         // this game's number in the transcript
+    private RoomEventBus events;            // tells players in the same room, may be null
+    private Mailbox mailbox;                // what other players did, not yet shown
+    private boolean adminCommands;          // stats allowed: the console's, not a server's
+
+    // The find command lists at most this many rooms.
+    private static final int FIND_LIMIT = 10;
+    // Eating the magic cookie lets the player carry this many more milligrams.
+    private static final long COOKIE_CAPACITY = 2 * Weight.MILLIGRAMS_PER_KILOGRAM;
     
     /**
      * Main method to run the game outside of BlueJ.
-     * Creates a new game instance and starts the game.
+     * Creates a new game instance and starts the game. If a world file
+     * is given, the world is loaded from it instead of the built-in one.
+     * With "-save directory" the game is saved in that directory as it is
+     * played, and continues from there when started again. With
+     * "-transcript directory" every command and its output are recorded
+     * in that directory (see TranscriptLogger).
+     *     java Game [world file] [-save directory] [-transcript directory]
      * 
-     * @param args Command line arguments (not used)
+     * @param args Optional world definition or world image file, and
+     *             optional save and transcript directories
+     * @throws IOException if the world file or saved game cannot be loaded
      */
-    public static void main(String[] args)
+    public static void main(String[] args) throws IOException
     {
-        Game game = new Game();
+        String worldFile = null;
+        String saveDirectory = null;
+        String transcriptDirectory = null;
+        for(int i = 0; i < args.length; i++) {
+            if(args[i].equals("-save") && i + 1 < args.length) {
+                saveDirectory = args[++i];
+            }
+            else if(args[i].equals("-transcript") && i + 1 < args.length) {
+                transcriptDirectory = args[++i];
+            }
+            else {
+                worldFile = args[i];
+            }
+        }
+
+        Game game;
+        if(worldFile != null) {
+            WorldLoader loader = new WorldLoader();
+            World world = loader.load(Paths.get(worldFile));
+            System.out.println(loader.getLoadReport());
+            game = new Game(world);
+        }
+        else {
+            game = new Game();
+        }
+        if(saveDirectory != null) {
+            GamePersistence persistence = new GamePersistence(Paths.get(saveDirectory));
+            persistence.recover(game);
+            System.out.println(persistence.getReport());
+        }
+        TranscriptLogger transcript = null;
+        if(transcriptDirectory != null) {
+            transcript = new TranscriptLogger(Paths.get(transcriptDirectory));
+            game.setTranscript(transcript);
+        }
         game.play();
+        if(transcript != null) {
+            transcript.close();
+        }
     }
         
     /**
@@ -37,16 +102,220 @@ public class Game
      */
     public Game() 
     {
-        createRooms();
-        parser = new Parser();
+        this(createRooms());
+    }
+
+    /**
+     * Create the game in the given world. Play starts in the world's
+     * start room. The game is played at the console, so its player may
+     * use the admin commands.
+     * @param world The world to play in.
+     */
+    public Game(World world)
+    {
+        this(world, System.in, new ConsoleSink());
+        adminCommands = true;
+    }
+
+    /**
+     * Create a game in the given world that reads its commands from the
+     * given input and writes all its output to the given sink. Several
+     * games can share one world, each with its own player. The admin
+     * commands are off until setAdminCommands turns them on.
+     * @param world The world to play in.
+     * @param in The source of command input.
+     * @param out Where the game's output is printed.
+     */
+    public Game(World world, InputStream in, OutputSink out)
+    {
+        this.world = world;
+        this.out = out;
+        currentRoom = world.getStartRoom();
+        parser = new Parser(in, out);
         player = new Player();
+        player.setItemIndex(world.getItemIndex());
+        metrics = CommandMetrics.getShared();
+    }
+
+    /**
+     * Allow or forbid the admin commands, such as stats, which shows the
+     * command metrics of the whole server. A game forbidding them plays
+     * and counts them as unknown commands, and leaves them out of its help.
+     * @param adminCommands true to allow the admin commands.
+     */
+    public void setAdminCommands(boolean adminCommands)
+    {
+        this.adminCommands = adminCommands;
+    }
+
+    /**
+     * Record the time taken by every command of this game.
+     * @param latencies The histogram to record command latencies in,
+     *                  or null to stop recording.
+     */
+    public void setLatencyHistogram(LatencyHistogram latencies)
+    {
+        this.latencies = latencies;
+    }
+
+    /**
+     * Record the counts and latencies of this game's commands in the
+     * given metrics instead of the shared ones.
+     * @param metrics The metrics to record in.
+     */
+    public void setMetrics(CommandMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return The world this game is played in.
+     */
+    public World getWorld()
+    {
+        return world;
+    }
+
+    /**
+     * @return The player of this game.
+     */
+    public Player getPlayer()
+    {
+        return player;
+    }
+
+    /**
+     * Replace the player of this game, for example by one restored from
+     * a snapshot.
+     * @param player The new player.
+     */
+    public void setPlayer(Player player)
+    {
+        this.player.setItemIndex(null);
+        player.setName(this.player.getName());
+        this.player = player;
+        player.setItemIndex(world.getItemIndex());
+    }
+
+    /**
+     * @return The room the player is in.
+     */
+    public Room getCurrentRoom()
+    {
+        return currentRoom;
+    }
+
+    /**
+     * Move the player to a room without going through an exit.
+     * @param room The room of this game's world to move to.
+     */
+    public void setCurrentRoom(Room room)
+    {
+        if(events != null) {
+            events.move(currentRoom, room, mailbox);
+        }
+        currentRoom = room;
+    }
+
+    /**
+     * Tell the other players in the same room what this game's player
+     * does, and be told what they do. Events sent to this game are shown
+     * before the output of its next command, or by deliverEvents.
+     * @param events The bus shared by the games of one world, or null to
+     *               stop telling and being told.
+     */
+    public void setEventBus(RoomEventBus events)
+    {
+        if(this.events != null) {
+            this.events.leave(currentRoom, mailbox);
+        }
+        this.events = events;
+        if(events != null) {
+            if(mailbox == null) {
+                mailbox = new Mailbox();
+            }
+            events.enter(currentRoom, mailbox);
+        }
+    }
+
+    /**
+     * @return The mailbox of events sent to this game, or null if it has
+     *         no event bus.
+     */
+    public Mailbox getMailbox()
+    {
+        return mailbox;
+    }
+
+    /**
+     * Show the player what the other players in the room have done since
+     * it was last shown. The output is left in the game's sink until the
+     * sink is flushed.
+     * @return true if anything was shown.
+     */
+    public boolean deliverEvents()
+    {
+        if(mailbox == null) {
+            return false;
+        }
+        boolean delivered = false;
+        RoomEvent event;
+        while((event = mailbox.poll()) != null) {
+            out.println(event.getText());
+            delivered = true;
+        }
+        return delivered;
+    }
+
+    /**
+     * Save every command that changes this game from now on.
+     * @param persistence Where the game is saved, or null to stop saving.
+     */
+    public void setPersistence(GamePersistence persistence)
+    {
+        this.persistence = persistence;
+    }
+
+    /**
+     * Record this game's commands and their output in a transcript.
+     * @param transcript The transcript to record in, or null for none.
+     */
+    public void setTranscript(TranscriptLogger transcript)
+    {
+        this.transcript = transcript;
+        if(transcript != null) {
+            transcriptSession = transcript.newSession();
+        }
+    }
+
+    /**
+     * Carry out commands without printing anything and without saving
+     * them, as when a saved game is recovered.
+     * @param lines The commands, one per line as they would be typed.
+     */
+    public void replay(List<String> lines)
+    {
+        OutputSink savedOut = out;
+        GamePersistence savedPersistence = persistence;
+        out = OutputSink.discard();
+        persistence = null;
+        try {
+            for(String line : lines) {
+                processCommand(parser.parseCommand(line));
+            }
+        }
+        finally {
+            out = savedOut;
+            persistence = savedPersistence;
+        }
     }
 
     /**
      * Create all the rooms and link their exits together.
      * The game world now contains at least 8 interconnected rooms.
+     * @return The built-in world.
      */
-    private void createRooms()
+    private static World createRooms()
     {
         Room outside, theater, pub, lab, office, library, cafeteria, garden, basement;
       
@@ -60,6 +329,17 @@ public class Game
         cafeteria = new Room("in the student cafeteria");
         garden = new Room("in the university garden");
         basement = new Room("in the basement storage room");
+
+        World world = new World();
+        world.addRoom("outside", outside);
+        world.addRoom("theater", theater);
+        world.addRoom("pub", pub);
+        world.addRoom("lab", lab);
+        world.addRoom("office", office);
+        world.addRoom("library", library);
+        world.addRoom("cafeteria", cafeteria);
+        world.addRoom("garden", garden);
+        world.addRoom("basement", basement);
         
         // initialise room exits
         outside.setExit("east", theater);
@@ -116,7 +396,9 @@ public class Game
         basement.addItem(new Item("flashlight", 0.25));
         basement.addItem(new Item("toolbox", 3.0));
 
-        currentRoom = outside;  // start game outside
+        world.setStartRoom(outside);  // start game outside
+        world.buildRoutingIndex();    // compacts the exits too
+        return world;
     }
 
     /**
@@ -124,7 +406,7 @@ public class Game
      */
     public void play() 
     {            
-        printWelcome();
+        start();
 
         // Enter the main command loop.  Here we repeatedly read commands and
         // execute them until the game is over.
@@ -132,9 +414,122 @@ public class Game
         boolean finished = false;
         while (! finished) {
             Command command = parser.getCommand();
-            finished = processCommand(command);
+            finished = execute(command);
+        }
+        finish();
+    }
+
+    /**
+     * Begin a game whose commands are handed to execute rather than read
+     * by play: print the welcome. The output is left in the game's sink
+     * until the sink is flushed.
+     */
+    public void start()
+    {
+        printWelcome();
+        announce("enters the game.");
+    }
+
+    /**
+     * Carry out one command as if it had been typed, without printing a
+     * prompt. The command is saved and timed like one typed in play. Its
+     * output is left in the game's sink until the sink is flushed.
+     * @param command The command to carry out.
+     * @return true If the command ends the game, false otherwise.
+     */
+    public boolean execute(Command command)
+    {
+        deliverEvents();
+        long start = System.nanoTime();
+        if(persistence != null && changesGame(command)) {
+            record(command);
+        }
+        int outputStart = out.getPendingLength();
+        Command played = command;
+        if(command.getCommandWord().isAdmin() && !adminCommands) {
+            // played, and counted, as the unknown command the player is told it is
+            played = new Command(CommandWord.UNKNOWN, command.getSecondWord());
+        }
+        boolean finished = processCommand(played);
+        if(transcript != null) {
+            // handed to the transcript's own thread, which does the writing
+            transcript.logCommand(transcriptSession, command.toString());
+            if(out.getPendingLength() > outputStart) {
+                transcript.logOutput(transcriptSession, out.getPendingText(outputStart));
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        metrics.record(played.getCommandWord(), nanos);
+        if(latencies != null) {
+            latencies.record(nanos);
+        }
+        return finished;
+    }
+
+    /**
+     * Carry out one line of input as if it had been typed.
+     * @param inputLine The command as it would be typed.
+     * @return true If the command ends the game, false otherwise.
+     */
+    public boolean execute(String inputLine)
+    {
+        return execute(parser.parseCommand(inputLine));
+    }
+
+    /**
+     * End the game: close the saved game and say good bye.
+     */
+    public void finish()
+    {
+        // the player leaves the world, and so do the items carried
+        player.setItemIndex(null);
+        if(persistence != null) {
+            try {
+                persistence.close();
+            }
+            catch(IOException e) {
+                out.println("The game could not be saved: " + e.getMessage());
+            }
+        }
+        if(transcript != null) {
+            transcript.logNote(transcriptSession, "session ended");
+        }
+        if(events != null) {
+            announce("leaves the game.");
+            events.leave(currentRoom, mailbox);
+            events = null;
+        }
+        out.println("Thank you for playing.  Good bye.");
+        out.flush();
+    }
+
+    /**
+     * Check whether a command can change the state of the game, and so
+     * has to be saved in the journal.
+     */
+    private static boolean changesGame(Command command)
+    {
+        switch(command.getCommandWord()) {
+            case GO: case TAKE: case DROP: case EAT: case BACK: case TRAVEL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Save a command in the journal before it is carried out. If that
+     * fails, the game goes on without being saved.
+     */
+    private void record(Command command)
+    {
+        try {
+            persistence.record(command);
+        }
+        catch(IOException e) {
+            out.println("The game can no longer be saved: " + e.getMessage());
+            persistence = null;
         }
-        System.out.println("Thank you for playing.  Good bye.");
     }
 
     /**
@@ -142,12 +537,12 @@ public class Game
      */
     private void printWelcome()
     {
-        System.out.println();
-        System.out.println("Welcome to the World of Zuul!");
-        System.out.println("World of Zuul is a new, incredibly boring adventure game.");
-        System.out.println("Type '" + CommandWord.HELP + "' if you need help.");
-        System.out.println();
-        System.out.println(currentRoom.getLongDescription());
+        out.println();
+        out.println("Welcome to the World of Zuul!");
+        out.println("World of Zuul is a new, incredibly boring adventure game.");
+        out.println("Type '" + CommandWord.HELP + "' if you need help.");
+        out.println();
+        out.println(currentRoom.getLongDescription());
     }
 
     /**
@@ -163,7 +558,7 @@ public class Game
 
         switch (commandWord) {
             case UNKNOWN:
-                System.out.println("I don't know what you mean...");
+                out.println("I don't know what you mean...");
                 break;
 
             case HELP:
@@ -202,6 +597,22 @@ public class Game
                 goBack(command);
                 break;
 
+            case TRAVEL:
+                travel(command);
+                break;
+
+            case SAVE:
+                save(command);
+                break;
+
+            case STATS:
+                showStats(command);
+                break;
+
+            case FIND:
+                findItem(command);
+                break;
+
             case QUIT:
                 wantToQuit = quit(command);
                 break;
@@ -218,11 +629,11 @@ public class Game
      */
     private void printHelp() 
     {
-        System.out.println("You are lost. You are alone. You wander");
-        System.out.println("around at the university.");
-        System.out.println();
-        System.out.println("Your command words are:");
-        parser.showCommands();
+        out.println("You are lost. You are alone. You wander");
+        out.println("around at the university.");
+        out.println();
+        out.println("Your command words are:");
+        parser.showCommands(adminCommands);
     }
 
     /** 
@@ -235,7 +646,8 @@ public class Game
     {
         if(!command.hasSecondWord()) {
             // if there is no second word, we don't know where to go...
-            System.out.println("Go where?");
+            out.println("Go where?");
+            metrics.recordFailedGo();
             return;
         }
 
@@ -245,13 +657,48 @@ public class Game
         Room nextRoom = currentRoom.getExit(direction);
 
         if (nextRoom == null) {
-            System.out.println("There is no door!");
+            out.println("There is no door!");
+            metrics.recordFailedGo();
         }
         else {
             // Add current room to history before moving
             player.addToHistory(currentRoom);
-            currentRoom = nextRoom;
-            System.out.println(currentRoom.getLongDescription());
+            moveTo(nextRoom, direction);
+            out.println(currentRoom.getLongDescription());
+        }
+    }
+    
+    /**
+     * Move the player to another room, telling the players in the room
+     * left and in the room entered.
+     * 
+     * @param room The room to move to
+     * @param direction The direction moved in, or null if the player did
+     *                  not go through a single exit
+     */
+    private void moveTo(Room room, String direction)
+    {
+        if(events == null) {
+            currentRoom = room;
+            return;
+        }
+        announce(direction == null ? "leaves." : "leaves to the " + direction + ".");
+        events.move(currentRoom, room, mailbox);
+        currentRoom = room;
+        String from = direction == null ? null : Directions.opposite(direction);
+        announce(from == null ? "arrives." : "arrives from the " + from + ".");
+    }
+    
+    /**
+     * Tell the other players in the current room what this game's player
+     * does.
+     * 
+     * @param action What the player does, for example "drops the key."
+     */
+    private void announce(String action)
+    {
+        if(events != null) {
+            events.publish(currentRoom, mailbox, player.getName() + " " + action);
         }
     }
     
@@ -263,7 +710,7 @@ public class Game
      */
     private void look(Command command)
     {
-        System.out.println(currentRoom.getLongDescription());
+        out.println(currentRoom.getLongDescription());
     }
     
     /**
@@ -274,29 +721,52 @@ public class Game
     private void takeItem(Command command)
     {
         if(!command.hasSecondWord()) {
-            System.out.println("Take what?");
+            out.println("Take what?");
+            metrics.recordFailedTake();
             return;
         }
         
         String itemName = command.getSecondWord();
-        Item item = currentRoom.getItem(itemName);
+        Item item = currentRoom.findItem(itemName);
+        itemName = meant(itemName, item);
         
-        if(item == null) {
-            System.out.println("There is no " + itemName + " here.");
+        // the room moves the very item found, so two players can't both
+        // take it, and what the player is told is about that item
+        Room.Transfer result = item == null ? Room.Transfer.NOT_HERE
+                                            : currentRoom.takeItem(item, player);
+        if(result == Room.Transfer.NOT_HERE) {
+            out.println("There is no " + itemName + " here.");
+            metrics.recordFailedTake();
+        }
+        else if(result == Room.Transfer.TAKEN) {
+            out.println("You picked up the " + itemName + ".");
+            announce("picks up the " + itemName + ".");
         }
         else {
-            if(player.addItem(item)) {
-                currentRoom.removeItem(item);
-                System.out.println("You picked up the " + itemName + ".");
-            }
-            else {
-                System.out.println("The " + itemName + " is too heavy to carry.");
-                System.out.println("You need " + (player.getTotalWeight() + item.getWeight() - player.getMaxWeight()) 
-                                 + "kg more capacity.");
-            }
+            out.println("The " + itemName + " is too heavy to carry.");
+            metrics.recordFailedTake();
+            long needed = item.getWeight() - player.getRemainingCapacity();
+            out.println("You need " + Weight.format(needed) + "kg more capacity.");
         }
     }
     
+    /**
+     * Return the name of the item a player meant. If the item found has
+     * a different name from the one typed, say which item is assumed.
+     * 
+     * @param typed The item name as typed
+     * @param item The item found for it, or null
+     * @return The name of the item, or the typed name if none was found
+     */
+    private String meant(String typed, Item item)
+    {
+        if(item == null || item.getDescription().equals(typed)) {
+            return typed;
+        }
+        out.println("(assuming you mean the " + item.getDescription() + ")");
+        return item.getDescription();
+    }
+    
     /**
      * Try to drop an item in the current room.
      * 
@@ -305,20 +775,21 @@ public class Game
     private void dropItem(Command command)
     {
         if(!command.hasSecondWord()) {
-            System.out.println("Drop what?");
+            out.println("Drop what?");
             return;
         }
         
         String itemName = command.getSecondWord();
-        Item item = player.getItem(itemName);
+        Item item = player.findItem(itemName);
+        itemName = meant(itemName, item);
         
         if(item == null) {
-            System.out.println("You don't have a " + itemName + ".");
+            out.println("You don't have a " + itemName + ".");
         }
         else {
-            player.removeItem(item);
-            currentRoom.addItem(item);
-            System.out.println("You dropped the " + itemName + ".");
+            currentRoom.dropItem(item, player);
+            out.println("You dropped the " + itemName + ".");
+            announce("drops the " + itemName + ".");
         }
     }
     
@@ -329,7 +800,7 @@ public class Game
      */
     private void showInventory(Command command)
     {
-        System.out.println(player.getInventoryString());
+        out.println(player.getInventoryString());
     }
     
     /**
@@ -346,40 +817,159 @@ public class Game
             try {
                 steps = Integer.parseInt(command.getSecondWord());
                 if(steps <= 0) {
-                    System.out.println("Please specify a positive number of steps.");
+                    out.println("Please specify a positive number of steps.");
                     return;
                 }
             }
             catch(NumberFormatException e) {
-                System.out.println("Please specify a valid number of steps.");
+                out.println("Please specify a valid number of steps.");
                 return;
             }
         }
         
-        for(int i = 0; i < steps; i++) {
-            Room previousRoom = player.getPreviousRoom();
-            
-            if(previousRoom == null) {
-                if(i == 0) {
-                    System.out.println("You can't go back any further.");
-                } else {
-                    System.out.println("You went back " + i + " step(s), but can't go back any further.");
-                }
-                return;
-            }
-            else {
-                currentRoom = previousRoom;
-            }
+        int available = player.getHistorySize();
+        if(available == 0) {
+            out.println("You can't go back any further.");
+            return;
+        }
+        if(steps > available) {
+            moveTo(player.getPreviousRoom(available), null);
+            out.println("You went back " + available + " step(s), but can't go back any further.");
+            return;
         }
+        moveTo(player.getPreviousRoom(steps), null);
         
         if(steps == 1) {
-            System.out.println("You went back.");
+            out.println("You went back.");
         } else {
-            System.out.println("You went back " + steps + " step(s).");
+            out.println("You went back " + steps + " step(s).");
+        }
+        out.println(currentRoom.getLongDescription());
+    }
+    
+    /**
+     * Travel to a named room along the shortest route, as if the player
+     * had typed a "go" command for every exit on the way. Every room passed
+     * through is added to the history, so "back" retraces the route.
+     * 
+     * @param command The travel command containing the name of the room
+     */
+    private void travel(Command command)
+    {
+        if(!command.hasSecondWord()) {
+            out.println("Travel where?");
+            return;
+        }
+
+        Room destination = world.getRoom(command.getSecondWord());
+        if(destination == null) {
+            out.println("There is no place called " + command.getSecondWord() + ".");
+            return;
+        }
+
+        List<String> route = world.getRoutingIndex().findRoute(currentRoom, destination);
+        if(route == null) {
+            out.println("You can't get there from here.");
+        }
+        else if(route.isEmpty()) {
+            out.println("You are already there.");
+        }
+        else {
+            Room room = currentRoom;
+            for(String direction : route) {
+                player.addToHistory(room);
+                room = room.getExit(direction);
+            }
+            // the players passed on the way are not told
+            moveTo(room, null);
+            out.println("You travel " + String.join(", ", route) + ".");
+            out.println(currentRoom.getLongDescription());
         }
-        System.out.println(currentRoom.getLongDescription());
     }
     
+    /**
+     * Save the game now, so that recovering it does not have to replay
+     * the commands played so far.
+     * 
+     * @param command The save command (second word ignored)
+     */
+    private void save(Command command)
+    {
+        if(persistence == null) {
+            out.println("This game is not being saved. Start it with -save to save it.");
+            return;
+        }
+        try {
+            persistence.checkpoint(this);
+            out.println("Game saved.");
+        }
+        catch(IOException e) {
+            out.println("The game could not be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Tell the player where items of some kind are in the world: how many
+     * there are, in which rooms, and whether players carry them.
+     * 
+     * @param command The find command containing the item to find
+     */
+    private void findItem(Command command)
+    {
+        if(!command.hasSecondWord()) {
+            out.println("Find what?");
+            return;
+        }
+
+        String itemName = command.getSecondWord();
+        ItemIndex index = world.getItemIndex();
+        long count = index.getCount(itemName);
+        if(count == 0) {
+            out.println("There is no " + itemName + " anywhere.");
+            return;
+        }
+
+        if(count == 1) {
+            out.print("There is one " + itemName + " in the world.");
+        }
+        else {
+            out.print("There are " + count + " items called " + itemName + " in the world.");
+        }
+        List<Room> rooms = index.getRooms(itemName, FIND_LIMIT);
+        if(!rooms.isEmpty()) {
+            out.println();
+            out.print("In rooms:");
+            for(Room room : rooms) {
+                out.print(' ');
+                out.print(world.getRoomName(room.getId()));
+            }
+            int moreRooms = index.getRoomCount(itemName) - rooms.size();
+            if(moreRooms > 0) {
+                out.print(" and " + moreRooms + " more");
+            }
+        }
+        int players = index.getPlayerCount(itemName);
+        if(players > 0) {
+            out.println();
+            boolean carried = player.getItem(itemName) != null;
+            int others = players - (carried ? 1 : 0);
+            out.print("Carried by: " + (carried ? "you" : "")
+                      + (carried && others > 0 ? " and " : "")
+                      + (others > 0 ? others + " other player(s)" : ""));
+        }
+        out.println();
+    }
+
+    /**
+     * Show how often each command has been used and how long it takes.
+     * 
+     * @param command The stats command (second word ignored)
+     */
+    private void showStats(Command command)
+    {
+        out.println(metrics.toString());
+    }
+
     /**
      * Show all items currently carried and their total weight (8.32).
      * 
@@ -387,7 +977,7 @@ public class Game
      */
     private void showItems(Command command)
     {
-        System.out.println(player.getInventoryString());
+        out.println(player.getInventoryString());
     }
     
     /**
@@ -399,26 +989,27 @@ public class Game
     private void eatItem(Command command)
     {
         if(!command.hasSecondWord()) {
-            System.out.println("Eat what?");
+            out.println("Eat what?");
             return;
         }
         
         String itemName = command.getSecondWord();
-        Item item = player.getItem(itemName);
+        Item item = player.findItem(itemName);
+        itemName = meant(itemName, item);
         
         if(item == null) {
-            System.out.println("You don't have a " + itemName + " to eat.");
+            out.println("You don't have a " + itemName + " to eat.");
         }
         else if(itemName.equals("cookie")) {
             // Special magic cookie handling
             player.removeItem(item);
-            player.increaseMaxWeight(2.0); // Increase capacity by 2kg
-            System.out.println("You ate the magic cookie! You feel stronger!");
-            System.out.println("Your carrying capacity has increased by 2kg!");
-            System.out.println("New maximum capacity: " + player.getMaxWeight() + "kg");
+            player.increaseMaxWeight(COOKIE_CAPACITY);
+            out.println("You ate the magic cookie! You feel stronger!");
+            out.println("Your carrying capacity has increased by " + Weight.format(COOKIE_CAPACITY) + "kg!");
+            out.println("New maximum capacity: " + Weight.format(player.getMaxWeight()) + "kg");
         }
         else {
-            System.out.println("You can't eat the " + itemName + ".");
+            out.println("You can't eat the " + itemName + ".");
         }
     }
 
@@ -431,7 +1022,7 @@ public class Game
     private boolean quit(Command command) 
     {
         if(command.hasSecondWord()) {
-            System.out.println("Quit what?");
+            out.println("Quit what?");
             return false;
         }
         else {
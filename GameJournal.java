@@ -0,0 +1,233 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A GameJournal is an append-only file of the commands that changed the
+ * game since its last snapshot, one command per line. Together with the
+ * snapshot it lets a game be recovered after a crash.
+ *
+ * Appending a command only copies it into a memory buffer. A background
+ * thread writes the buffer to the file and forces it to disk every few
+ * milliseconds, or sooner when a lot has been appended, so that many
+ * commands share one write and one fsync (group commit). A command is
+ * therefore on disk at most FLUSH_INTERVAL_MILLIS after it was appended,
+ * or as soon as sync returns.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class GameJournal implements AutoCloseable
+{
+    // The longest time an appended command waits before it is on disk.
+    public static final int FLUSH_INTERVAL_MILLIS = 20;
+    // Appending this many bytes wakes the flusher early.
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private FileChannel channel;
+    private ByteBuffer pending;         // appended but not yet written
+    private ByteBuffer writing;         // being written by the flusher
+    private long appended;              // commands appended so far
+    private long synced;                // commands known to be on disk
+    private IOException failure;        // the last write error, if any
+    private boolean closed;
+    private Thread flusher;
+
+    /**
+     * Open a journal, creating the file if needed. New commands are
+     * appended after the complete ones already in the file.
+     * @param file The journal file.
+     * @throws IOException if the file cannot be opened.
+     */
+    public GameJournal(Path file) throws IOException
+    {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                   StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        // drop half a line left by a crash, so new commands start a line
+        byte[] bytes = Files.readAllBytes(file);
+        int end = bytes.length;
+        while(end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        if(end < bytes.length) {
+            channel.truncate(end);
+        }
+        pending = ByteBuffer.allocate(2 * FLUSH_THRESHOLD);
+        writing = ByteBuffer.allocate(2 * FLUSH_THRESHOLD);
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Read all commands from a journal file.
+     * @param file The journal file.
+     * @return The commands in the order they were appended; empty if the
+     *         file does not exist.
+     * @throws IOException if the file cannot be read.
+     */
+    public static List<String> readAll(Path file) throws IOException
+    {
+        if(!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        // a crash can leave half a line at the end; a complete line ends in '\n'
+        byte[] bytes = Files.readAllBytes(file);
+        if(bytes.length > 0 && bytes[bytes.length - 1] != '\n' && !lines.isEmpty()) {
+            lines.remove(lines.size() - 1);
+        }
+        return lines;
+    }
+
+    /**
+     * Append a command to the journal. This does not wait for the disk.
+     * @param command The command, as it would be typed.
+     * @throws IOException if an earlier write to the journal failed.
+     */
+    public synchronized void append(String command) throws IOException
+    {
+        if(failure != null) {
+            throw failure;
+        }
+        if(closed) {
+            throw new IOException("The journal is closed");
+        }
+        byte[] bytes = (command + "\n").getBytes(StandardCharsets.UTF_8);
+        while(pending.remaining() < bytes.length) {
+            if(pending.position() == 0) {
+                // a single command longer than the buffer
+                ByteBuffer larger = ByteBuffer.allocate(bytes.length * 2);
+                pending = larger;
+                break;
+            }
+            notifyAll();
+            waitForFlusher();
+        }
+        pending.put(bytes);
+        appended++;
+        if(pending.position() >= FLUSH_THRESHOLD) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Wait until every command appended so far is on disk.
+     * @throws IOException if writing to the journal failed.
+     */
+    public synchronized void sync() throws IOException
+    {
+        long target = appended;
+        while(synced < target && failure == null) {
+            notifyAll();
+            waitForFlusher();
+        }
+        if(failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Write all appended commands to disk and close the journal.
+     * @throws IOException if writing to the journal failed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        synchronized(this) {
+            if(closed) {
+                return;
+            }
+            sync();
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    /**
+     * @return The number of commands appended since the journal was opened.
+     */
+    public synchronized long getAppendedCount()
+    {
+        return appended;
+    }
+
+    /**
+     * Wait for the flusher to make progress.
+     */
+    private void waitForFlusher() throws IOException
+    {
+        try {
+            wait(FLUSH_INTERVAL_MILLIS);
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the journal", e);
+        }
+    }
+
+    /**
+     * The flusher thread: repeatedly swap the buffers, then write and
+     * force the full one outside the lock, so appends are never held up
+     * by the disk.
+     */
+    private void flushLoop()
+    {
+        while(true) {
+            long batchEnd;
+            synchronized(this) {
+                while(!closed && pending.position() == 0) {
+                    try {
+                        wait(FLUSH_INTERVAL_MILLIS);
+                    }
+                    catch(InterruptedException e) {
+                        return;
+                    }
+                }
+                if(pending.position() == 0) {
+                    return;     // closed and nothing left to write
+                }
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+                batchEnd = appended;
+            }
+
+            try {
+                writing.flip();
+                while(writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                channel.force(false);
+                writing.clear();
+                synchronized(this) {
+                    synced = batchEnd;
+                    notifyAll();
+                }
+            }
+            catch(IOException e) {
+                synchronized(this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+}
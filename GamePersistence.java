@@ -0,0 +1,162 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * GamePersistence keeps a game saved in a directory, so that it survives
+ * the process being stopped or crashing. The directory holds a snapshot of
+ * the game (see GameSnapshot) and a journal of the commands that changed
+ * the game since (see GameJournal):
+ *
+ *     game.snapshot       the state at the last checkpoint, generation N
+ *     journal-N.log       the commands played since that checkpoint
+ *
+ * Every command that changes the game is appended to the journal before
+ * it is carried out. A checkpoint writes a new snapshot of generation N+1
+ * and starts journal-(N+1).log; only once the snapshot is safely in place
+ * is the old journal deleted. Recovery reads the snapshot and replays its
+ * journal through the game's normal command handling. Whenever a crash
+ * happens, the snapshot on disk names the journal that belongs to it, so
+ * no command is lost or played twice.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class GamePersistence implements AutoCloseable
+{
+    private Path directory;
+    private Path snapshotFile;
+    private long generation;            // generation of the snapshot on disk
+    private GameJournal journal;        // journal of the current generation
+
+    // statistics of the last recovery and checkpoint
+    private long snapshotBytes;
+    private long recoveryNanos;
+    private int commandsReplayed;
+    private long checkpointNanos;
+
+    /**
+     * Keep games saved in the given directory, creating it if needed.
+     * @param directory The directory for the snapshot and journal.
+     * @throws IOException if the directory cannot be created.
+     */
+    public GamePersistence(Path directory) throws IOException
+    {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        snapshotFile = directory.resolve("game.snapshot");
+    }
+
+    /**
+     * Restore a game from the directory and start journaling its commands.
+     * If nothing has been saved yet, the game is left as it is and its
+     * state becomes the first snapshot.
+     * @param game The game to restore, freshly created in the world it
+     *             was saved from.
+     * @throws IOException if the saved game cannot be read.
+     */
+    public void recover(Game game) throws IOException
+    {
+        long start = System.nanoTime();
+        if(Files.exists(snapshotFile)) {
+            generation = GameSnapshot.read(game, snapshotFile);
+            snapshotBytes = Files.size(snapshotFile);
+            List<String> commands = GameJournal.readAll(journalFile(generation));
+            game.replay(commands);
+            commandsReplayed = commands.size();
+            recoveryNanos = System.nanoTime() - start;
+            journal = new GameJournal(journalFile(generation));
+        }
+        else {
+            recoveryNanos = System.nanoTime() - start;
+            checkpoint(game);
+        }
+        game.setPersistence(this);
+    }
+
+    /**
+     * Append a command to the journal. It reaches the disk shortly after,
+     * together with the commands appended around the same time.
+     * @param command The command, which has not been carried out yet.
+     * @throws IOException if the journal cannot be written.
+     */
+    public void record(Command command) throws IOException
+    {
+        journal.append(command.toString());
+    }
+
+    /**
+     * Write a new snapshot of a game and start a new, empty journal.
+     * @param game The game to save.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void checkpoint(Game game) throws IOException
+    {
+        long start = System.nanoTime();
+        long next = generation + 1;
+        Files.deleteIfExists(journalFile(next));    // left by a crashed checkpoint
+        GameJournal nextJournal = new GameJournal(journalFile(next));
+        snapshotBytes = GameSnapshot.write(game, next, snapshotFile);
+
+        // the new snapshot is in place, so the old journal is not needed
+        if(journal != null) {
+            journal.close();
+        }
+        Files.deleteIfExists(journalFile(generation));
+        generation = next;
+        journal = nextJournal;
+        checkpointNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Wait until every recorded command is on disk and close the journal.
+     * @throws IOException if the journal cannot be written.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if(journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Return a report of the last recovery and checkpoint, in the form:
+     *     Snapshot 412 bytes, recovered in 1.20 ms replaying 3 commands, checkpoint 0.85 ms
+     * @return A description of the saved game.
+     */
+    public String getReport()
+    {
+        return String.format("Snapshot %d bytes, recovered in %.2f ms replaying %d commands, checkpoint %.2f ms",
+                             snapshotBytes, recoveryNanos / 1e6, commandsReplayed, checkpointNanos / 1e6);
+    }
+
+    /**
+     * @return The size of the last snapshot read or written, in bytes.
+     */
+    public long getSnapshotBytes()
+    {
+        return snapshotBytes;
+    }
+
+    /**
+     * @return The time taken by the last recovery in nanoseconds.
+     */
+    public long getRecoveryNanos()
+    {
+        return recoveryNanos;
+    }
+
+    /**
+     * Return the journal file of a generation.
+     */
+    private Path journalFile(long generation)
+    {
+        return directory.resolve("journal-" + generation + ".log");
+    }
+}
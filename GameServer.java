@@ -0,0 +1,309 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * The game server lets many players play in one shared world at the same
+ * time. Players connect over TCP (for example with telnet or nc), and each
+ * connection becomes a session: a Game with its own Player, current room
+ * and Parser, running on its own virtual thread. Virtual threads are cheap
+ * enough that the server can host thousands of mostly idle sessions.
+ *
+ * Each session has two virtual threads: one reads the player's commands
+ * into the session's SessionInputQueue, the other takes them out and plays
+ * them. The queue is bounded and rate limited (see InputLimits), so a
+ * client pasting thousands of commands cannot keep the game busy at the
+ * cost of other players.
+ *
+ * The server counts the sessions it has served and records the latency of
+ * every command in a shared histogram, so that sessions per second and
+ * p99 command latency can be reported. The input queues are counted in an
+ * InputQueueStats, registered over JMX as "zuul:type=InputQueueStats,server=game-<port>".
+ *
+ * Players are named "Player 1", "Player 2" and so on in the order they
+ * connect, and are told what the other players in their room do through
+ * the server's RoomEventBus. A session waiting for its player's command
+ * is woken to show such events at once.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class GameServer
+{
+    private World world;
+    private ServerSocket serverSocket;
+    private LatencyHistogram latencies;     // latencies of all sessions' commands
+    private InputLimits limits;
+    private InputQueueStats inputStats;
+    private TranscriptLogger transcript;    // where sessions are recorded, may be null
+    private RoomEventBus events;            // tells players what others in the room do
+    private AtomicLong sessionsStarted;
+    private AtomicLong sessionsFinished;
+    private long startTime;
+
+    /**
+     * Start a server from the command line.
+     *     java GameServer [port] [world file] [input limit options] [-transcript directory]
+     *
+     * @param args The optional port (default 4000) and world file, and
+     *             the options described in InputLimits and TranscriptLogger.
+     * @throws IOException if the world cannot be loaded or the port opened.
+     * @throws InterruptedException if the reporting thread is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        InputLimits limits = InputLimits.fromOptions(arguments);
+        TranscriptLogger transcript = TranscriptLogger.fromOptions(arguments);
+        int port = arguments.size() > 0 ? Integer.parseInt(arguments.get(0)) : 4000;
+        World world;
+        if(arguments.size() > 1) {
+            WorldLoader loader = new WorldLoader();
+            world = loader.load(Paths.get(arguments.get(1)));
+            System.out.println(loader.getLoadReport());
+        }
+        else {
+            world = new Game().getWorld();
+        }
+        GameServer server = new GameServer(world, port, limits);
+        server.setTranscript(transcript);
+        Thread.ofPlatform().daemon().start(server::serve);
+        System.out.println("Serving on port " + server.getPort() + ", input limits: " + limits);
+        while(true) {
+            Thread.sleep(10_000);
+            System.out.println(server.getReport());
+        }
+    }
+
+    /**
+     * Create a server for the given world, listening on the given port,
+     * with the default input limits. Call serve to start accepting players.
+     * @param world The world shared by all sessions.
+     * @param port The TCP port to listen on, or 0 for any free port.
+     * @throws IOException if the port cannot be opened.
+     */
+    public GameServer(World world, int port) throws IOException
+    {
+        this(world, port, new InputLimits());
+    }
+
+    /**
+     * Create a server for the given world, listening on the given port.
+     * Call serve to start accepting players.
+     * @param world The world shared by all sessions.
+     * @param port The TCP port to listen on, or 0 for any free port.
+     * @param limits How much input each session may send.
+     * @throws IOException if the port cannot be opened.
+     */
+    public GameServer(World world, int port, InputLimits limits) throws IOException
+    {
+        this.world = world;
+        serverSocket = new ServerSocket(port, 1024);
+        this.limits = limits;
+        inputStats = new InputQueueStats();
+        inputStats.register("game-" + serverSocket.getLocalPort());
+        latencies = new LatencyHistogram();
+        events = new RoomEventBus();
+        sessionsStarted = new AtomicLong();
+        sessionsFinished = new AtomicLong();
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Accept players until the server is closed. Every connection is
+     * served by a new virtual thread.
+     */
+    public void serve()
+    {
+        while(!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                long number = sessionsStarted.incrementAndGet();
+                Thread.ofVirtual().name("session-", number).start(() -> runSession(socket, number));
+            }
+            catch(IOException e) {
+                if(!serverSocket.isClosed()) {
+                    System.err.println("Could not accept a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop accepting players. Sessions that are running carry on until
+     * their players quit.
+     * @throws IOException if the server socket cannot be closed.
+     */
+    public void close() throws IOException
+    {
+        serverSocket.close();
+    }
+
+    /**
+     * @return The port the server is listening on.
+     */
+    public int getPort()
+    {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return The histogram of command latencies of all sessions.
+     */
+    public LatencyHistogram getLatencies()
+    {
+        return latencies;
+    }
+
+    /**
+     * Record the commands and output of sessions started from now on.
+     * @param transcript The transcript to record in, or null for none.
+     */
+    public void setTranscript(TranscriptLogger transcript)
+    {
+        this.transcript = transcript;
+    }
+
+    /**
+     * @return The bus telling the players of this server's sessions what
+     *         the others in their room do.
+     */
+    public RoomEventBus getEventBus()
+    {
+        return events;
+    }
+
+    /**
+     * @return The counts of all sessions' input queues.
+     */
+    public InputQueueStats getInputStats()
+    {
+        return inputStats;
+    }
+
+    /**
+     * @return The number of sessions started per second since the server
+     *         was created.
+     */
+    public double getSessionsPerSecond()
+    {
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        return sessionsStarted.get() / Math.max(seconds, 1e-9);
+    }
+
+    /**
+     * Return a report of the server's activity, in the form:
+     *     sessions: 120 active, 3400 finished, 35.2/s; commands: count=... p99=...; input: queued=...; events: ...
+     * @return A description of the server's activity.
+     */
+    public String getReport()
+    {
+        long finished = sessionsFinished.get();
+        return String.format("sessions: %d active, %d finished, %.1f/s; commands: %s; input: %s; events: %s",
+                             sessionsStarted.get() - finished, finished,
+                             getSessionsPerSecond(), latencies, inputStats, events);
+    }
+
+    /**
+     * Play one session over a connection until the player quits or
+     * disconnects. The commands are read by a second thread into the
+     * session's input queue, and played from there. While waiting for a
+     * command, the session shows the events other players cause.
+     */
+    private void runSession(Socket socket, long number)
+    {
+        SessionInputQueue queue = limits.newQueue(inputStats);
+        try (socket) {
+            Thread.ofVirtual().start(() -> readCommands(socket, queue));
+            OutputSink out = new SocketSink(socket);
+            Game game = new Game(world, InputStream.nullInputStream(), out);
+            game.setLatencyHistogram(latencies);
+            game.setTranscript(transcript);
+            game.getPlayer().setName("Player " + number);
+            game.setEventBus(events);
+            Mailbox mailbox = game.getMailbox();
+            mailbox.setListener(queue::wakeUp);
+            // finished however the session ends, so the player leaves the
+            // room's events and the item index
+            try {
+                game.start();
+                out.print("> ");
+                out.flush();
+                boolean finished = false;
+                while(!finished) {
+                    queue.awaitInput();
+                    if(queue.isEmpty() && !queue.isClosed()) {
+                        // woken by an event while the player was idle
+                        if(!mailbox.isEmpty()) {
+                            out.println();
+                            game.deliverEvents();
+                            out.print("> ");
+                            out.flush();
+                        }
+                        continue;
+                    }
+                    Command command = queue.take();
+                    if(command == null) {
+                        // the input has ended, so there will be no more commands
+                        command = new Command(CommandWord.QUIT, null);
+                    }
+                    int discarded = queue.takeDiscardedCount();
+                    if(discarded > 0) {
+                        out.println("(" + discarded + " of your commands were ignored: you are typing faster than the game can follow.)");
+                    }
+                    finished = game.execute(command);
+                    if(!finished) {
+                        out.print("> ");
+                        out.flush();
+                    }
+                }
+            }
+            finally {
+                game.finish();
+            }
+        }
+        catch(IOException | InterruptedException e) {
+            // the player disconnected; nothing more to do for this session
+        }
+        finally {
+            queue.close();
+            sessionsFinished.incrementAndGet();
+        }
+    }
+
+    /**
+     * Read a session's commands into its input queue until the input ends.
+     */
+    private void readCommands(Socket socket, SessionInputQueue queue)
+    {
+        CommandTokenizer tokenizer = new CommandTokenizer(new CommandWords());
+        tokenizer.setMaxLineLength(InputLimits.MAX_LINE_LENGTH);
+        try {
+            Reader in = new InputStreamReader(socket.getInputStream());
+            Command command;
+            while((command = tokenizer.readCommand(in)) != null) {
+                for(int cut = tokenizer.takeCutLineCount(); cut > 0; cut--) {
+                    inputStats.recordRejected();
+                }
+                queue.offer(command);
+            }
+        }
+        catch(IOException | InterruptedException e) {
+            // the connection is closed; the session ends as at the end of input
+        }
+        finally {
+            queue.endOfInput();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A GameSnapshot writes the changing state of a game to a compact binary
+ * file and reads it back: the items in every room of the world, and the
+ * player's capacity, inventory, room history and current room. The rooms
+ * and exits themselves are not saved; they come from the world the game
+ * is played in, which must be the same world when the snapshot is read.
+ *
+ * The file is laid out like a world image: all item names are stored once
+ * in a string table and referred to by index, and rooms are referred to by
+ * their id in the world. A snapshot is written to a temporary file and
+ * then moved over the old one, so a crash never leaves half a snapshot.
+ *
+ * Every snapshot carries a generation number, which names the journal of
+ * the commands played after it was taken (see GamePersistence).
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class GameSnapshot
+{
+    // "ZSNP" in ASCII, at the start of every snapshot.
+    private static final int MAGIC = 0x5A534E50;
+    private static final int VERSION = 2;    // 2: weights in milligrams
+
+    /**
+     * Write the state of a game to a snapshot file, replacing the file
+     * atomically.
+     * @param game The game to save.
+     * @param generation The generation number of the snapshot.
+     * @param file The snapshot file.
+     * @return The size of the snapshot in bytes.
+     * @throws IOException if the file cannot be written.
+     */
+    public static long write(Game game, long generation, Path file) throws IOException
+    {
+        World world = game.getWorld();
+        Player player = game.getPlayer();
+        int roomCount = world.getRoomCount();
+        ArrayList<String> strings = new ArrayList<>();
+        HashMap<String, Integer> stringIds = new HashMap<>();
+        // Other sessions may take and drop items meanwhile, so each room's
+        // items are copied under the room's lock, and only the copies are
+        // written.
+        ArrayList<Item> items = new ArrayList<>();
+        int[] itemRooms = new int[64];          // the room of each copied item
+        for(int id = 0; id < roomCount; id++) {
+            Room room = world.getRoom(id);
+            if(room.getItemCount() > 0) {
+                synchronized(room) {
+                    for(Item item : room.getItemView()) {
+                        if(items.size() == itemRooms.length) {
+                            itemRooms = Arrays.copyOf(itemRooms, itemRooms.length * 2);
+                        }
+                        itemRooms[items.size()] = id;
+                        items.add(item);
+                        stringId(item.getDescription(), strings, stringIds);
+                    }
+                }
+            }
+        }
+        ArrayList<Item> inventory = player.getInventory();
+        for(Item item : inventory) {
+            stringId(item.getDescription(), strings, stringIds);
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(generation);
+            out.writeInt(roomCount);
+
+            out.writeInt(strings.size());
+            for(String string : strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            // items are written in order of their room
+            out.writeInt(items.size());
+            for(int i = 0; i < items.size(); i++) {
+                Item item = items.get(i);
+                out.writeInt(itemRooms[i]);
+                out.writeInt(stringIds.get(item.getDescription()));
+                out.writeLong(item.getWeight());
+            }
+
+            out.writeLong(player.getMaxWeight());
+            out.writeInt(inventory.size());
+            for(Item item : inventory) {
+                out.writeInt(stringIds.get(item.getDescription()));
+                out.writeLong(item.getWeight());
+            }
+
+            // the history is written oldest room first
+            out.writeInt(player.getHistoryDepth());
+            int historySize = player.getHistorySize();
+            out.writeInt(historySize);
+            for(int steps = historySize; steps >= 1; steps--) {
+                out.writeInt(player.getHistoryRoom(steps).getId());
+            }
+            out.writeInt(game.getCurrentRoom().getId());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(file);
+    }
+
+    /**
+     * Read a snapshot file into a game, replacing the items of every room
+     * in its world and its player.
+     * @param game The game to restore. Its world must be the one the
+     *             snapshot was taken in.
+     * @param file The snapshot file.
+     * @return The generation number of the snapshot.
+     * @throws IOException if the file cannot be read, is not a valid
+     *         snapshot, or does not fit the game's world.
+     */
+    public static long read(Game game, Path file) throws IOException
+    {
+        World world = game.getWorld();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(file), 1 << 16))) {
+            if(in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a game snapshot");
+            }
+            int version = in.readInt();
+            if(version != VERSION) {
+                throw new IOException(file + ": unsupported snapshot version " + version);
+            }
+            long generation = in.readLong();
+            int roomCount = in.readInt();
+            if(roomCount != world.getRoomCount()) {
+                throw new IOException(file + ": snapshot has " + roomCount
+                                      + " rooms but the world has " + world.getRoomCount());
+            }
+
+            String[] strings = new String[in.readInt()];
+            for(int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            for(int id = 0; id < roomCount; id++) {
+                Room room = world.getRoom(id);
+                if(room.getItemCount() > 0) {
+                    room.clearItems();
+                }
+            }
+            int itemCount = in.readInt();
+            for(int i = 0; i < itemCount; i++) {
+                Room room = world.getRoom(checkRoom(in.readInt(), roomCount, file));
+                room.addItem(Item.ofMilligrams(strings[in.readInt()], in.readLong()));
+            }
+
+            long maxWeight = in.readLong();
+            int inventorySize = in.readInt();
+            ArrayList<Item> inventory = new ArrayList<>(inventorySize);
+            for(int i = 0; i < inventorySize; i++) {
+                inventory.add(Item.ofMilligrams(strings[in.readInt()], in.readLong()));
+            }
+
+            Player player = new Player(in.readInt());
+            // weights add up exactly, so the items fit as they did when saved
+            player.setMaxWeight(maxWeight);
+            for(Item item : inventory) {
+                if(!player.addItem(item)) {
+                    throw new IOException(file + ": the player's items weigh more than the player can carry");
+                }
+            }
+            int historySize = in.readInt();
+            for(int i = 0; i < historySize; i++) {
+                player.addToHistory(world.getRoom(checkRoom(in.readInt(), roomCount, file)));
+            }
+            Room currentRoom = world.getRoom(checkRoom(in.readInt(), roomCount, file));
+
+            game.setPlayer(player);
+            game.setCurrentRoom(currentRoom);
+            return generation;
+        }
+        catch(EOFException | IndexOutOfBoundsException | NegativeArraySizeException
+              | IllegalArgumentException e) {
+            throw new IOException(file + ": corrupt game snapshot", e);
+        }
+    }
+
+    /**
+     * Check that a room id read from a snapshot is in the world.
+     */
+    private static int checkRoom(int id, int roomCount, Path file) throws IOException
+    {
+        if(id < 0 || id >= roomCount) {
+            throw new IOException(file + ": room id " + id + " is not in the world");
+        }
+        return id;
+    }
+
+    /**
+     * Return the index of a string in the string table, adding it if needed.
+     */
+    private static int stringId(String string, ArrayList<String> strings,
+                                HashMap<String, Integer> stringIds)
+    {
+        Integer id = stringIds.get(string);
+        if(id == null) {
+            id = strings.size();
+            strings.add(string);
+            stringIds.put(string, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,381 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * Measures the hot paths of play: reading a command with Parser.getCommand,
+ * looking up command words, describing a room, finding an item in a room,
+ * adding items to and weighing a player's inventory, and matching mistyped
+ * item names. Every benchmark is run for each combination of world size,
+ * items per room, inventory size and number of item names given, and
+ * reports time and bytes allocated per operation.
+ *
+ *     java HotPathBenchmark [-rooms 1000,100000] [-items 1,10,100]
+ *                           [-inventory 1,10,100] [-names 1000,50000]
+ *                           [-save file] [-compare file]
+ *
+ * With -save the results are written to a file; with -compare each result
+ * is shown next to the result of the same name in such a file, so that a
+ * change to the game can be measured against a baseline taken before it.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class HotPathBenchmark
+{
+    private static final String[] LINES = {
+        "go north", "take map", "look", "inventory", "drop map", "n", "help", "eat cookie",
+    };
+    private static final String[] WORDS = {
+        "go", "take", "look", "inventory", "inv", "drop", "xyzzy", "n",
+    };
+    private static final String[] DIRECTIONS = { "north", "east", "south", "west" };
+
+    private List<Benchmark.Result> results = new ArrayList<>();
+
+    /**
+     * Run the benchmarks.
+     * @param args The options described above.
+     * @throws IOException if a results file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int[] roomCounts = { 1_000, 100_000 };
+        int[] itemCounts = { 1, 10, 100 };
+        int[] inventorySizes = { 1, 10, 100 };
+        int[] nameCounts = { 1_000, 50_000 };
+        Path saveFile = null;
+        Path compareFile = null;
+        for(int i = 0; i + 1 < args.length; i += 2) {
+            switch(args[i]) {
+                case "-rooms":     roomCounts = parseList(args[i + 1]); break;
+                case "-items":     itemCounts = parseList(args[i + 1]); break;
+                case "-inventory": inventorySizes = parseList(args[i + 1]); break;
+                case "-names":     nameCounts = parseList(args[i + 1]); break;
+                case "-save":      saveFile = Paths.get(args[i + 1]); break;
+                case "-compare":   compareFile = Paths.get(args[i + 1]); break;
+                default:
+                    System.out.println("Unknown option " + args[i]);
+                    return;
+            }
+        }
+
+        HotPathBenchmark benchmark = new HotPathBenchmark();
+        benchmark.measureParser();
+        benchmark.measureCommandWords();
+        for(int roomCount : roomCounts) {
+            for(int itemCount : itemCounts) {
+                benchmark.measureRooms(roomCount, itemCount);
+            }
+        }
+        for(int inventorySize : inventorySizes) {
+            benchmark.measurePlayer(inventorySize);
+        }
+        for(int nameCount : nameCounts) {
+            benchmark.measureFuzzyMatcher(nameCount);
+        }
+
+        if(compareFile != null) {
+            benchmark.compare(compareFile);
+        }
+        if(saveFile != null) {
+            benchmark.save(saveFile);
+        }
+    }
+
+    /**
+     * Measure reading commands with Parser.getCommand.
+     */
+    public void measureParser()
+    {
+        int lineCount = 1_000_000;
+        StringBuilder input = new StringBuilder();
+        for(int i = 0; i < lineCount; i++) {
+            input.append(LINES[i % LINES.length]).append('\n');
+        }
+        byte[] bytes = input.toString().getBytes(StandardCharsets.UTF_8);
+        OutputSink discard = OutputSink.discard();
+
+        measure("Parser.getCommand", lineCount, operations -> {
+            Parser parser = new Parser(new ByteArrayInputStream(bytes), discard);
+            long sum = 0;
+            for(long i = 0; i < operations; i++) {
+                sum += parser.getCommand().getCommandWord().ordinal();
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Measure looking up command words, prefixes, aliases and unknown words.
+     */
+    public void measureCommandWords()
+    {
+        CommandWords commands = new CommandWords();
+        measure("CommandWords.getCommandWord", 5_000_000, operations -> {
+            long sum = 0;
+            for(long i = 0; i < operations; i++) {
+                sum += commands.getCommandWord(WORDS[(int) (i & 7)]).ordinal();
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Measure describing rooms and finding items in them, in a world of
+     * the given size with the given number of items in every room.
+     */
+    public void measureRooms(int roomCount, int itemCount)
+    {
+        World world = createWorld(roomCount, itemCount);
+        String[] itemNames = itemNames(itemCount);
+        String size = " [rooms=" + roomCount + ", items=" + itemCount + "]";
+
+        measure("Room.getLongDescription" + size, 1_000_000, operations -> {
+            long sum = 0;
+            int id = 0;
+            for(long i = 0; i < operations; i++) {
+                sum += world.getRoom(id).getLongDescription().length();
+                id = (int) ((id + 7919L) % roomCount);
+            }
+            return sum;
+        });
+
+        // taking an item changes the room, so its description is rendered again
+        measure("Room.getLongDescription changed" + size, 200_000, operations -> {
+            long sum = 0;
+            int id = 0;
+            for(long i = 0; i < operations; i++) {
+                Room room = world.getRoom(id);
+                Item item = room.getItem(itemNames[(int) (i % itemCount)]);
+                room.removeItem(item);
+                room.addItem(item);
+                sum += room.getLongDescription().length();
+                id = (int) ((id + 7919L) % roomCount);
+            }
+            return sum;
+        });
+
+        measure("Room.getItem" + size, 2_000_000, operations -> {
+            long sum = 0;
+            int id = 0;
+            for(long i = 0; i < operations; i++) {
+                sum += world.getRoom(id).getItem(itemNames[(int) (i % itemCount)]).hashCode();
+                id = (int) ((id + 7919L) % roomCount);
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Measure adding items to, and weighing, an inventory that already
+     * holds the given number of items.
+     */
+    public void measurePlayer(int inventorySize)
+    {
+        Player player = new Player();
+        player.setMaxWeight(Long.MAX_VALUE);
+        for(String name : itemNames(inventorySize)) {
+            player.addItem(new Item(name, 0.1));
+        }
+        Item extra = new Item("extra", 0.25);
+        String size = " [inventory=" + inventorySize + "]";
+
+        measure("Player.addItem" + size, 2_000_000, operations -> {
+            long sum = 0;
+            for(long i = 0; i < operations; i++) {
+                if(player.addItem(extra)) {
+                    sum++;
+                }
+                player.removeItem(extra);
+            }
+            return sum;
+        });
+
+        measure("Player.getTotalWeight" + size, 10_000_000, operations -> {
+            long sum = 0;
+            for(long i = 0; i < operations; i++) {
+                sum += player.getTotalWeight();
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Measure finding the name meant by a mistyped item name among the
+     * given number of distinct names.
+     */
+    public void measureFuzzyMatcher(int nameCount)
+    {
+        SplittableRandom random = new SplittableRandom(42);
+        FuzzyMatcher matcher = new FuzzyMatcher();
+        String[] names = new String[nameCount];
+        for(int i = 0; i < nameCount; i++) {
+            names[i] = randomName(random);
+            matcher.add(names[i]);
+        }
+        // one edit of each kind: change, delete, insert and swap
+        String[] typos = new String[1024];
+        for(int i = 0; i < typos.length; i++) {
+            StringBuilder typo = new StringBuilder(names[random.nextInt(nameCount)]);
+            int at = random.nextInt(typo.length() - 1);
+            switch(i & 3) {
+                case 0:  typo.setCharAt(at, (char) ('a' + random.nextInt(26))); break;
+                case 1:  typo.deleteCharAt(at); break;
+                case 2:  typo.insert(at, (char) ('a' + random.nextInt(26))); break;
+                default:
+                    char c = typo.charAt(at);
+                    typo.setCharAt(at, typo.charAt(at + 1));
+                    typo.setCharAt(at + 1, c);
+            }
+            typos[i] = typo.toString();
+        }
+        String size = " [names=" + nameCount + "]";
+
+        measure("FuzzyMatcher.suggest" + size, 200_000, operations -> {
+            long sum = 0;
+            for(long i = 0; i < operations; i++) {
+                sum += matcher.suggest(typos[(int) (i & 1023)]).size();
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Return a made-up word of five to ten letters.
+     */
+    private static String randomName(SplittableRandom random)
+    {
+        char[] letters = new char[5 + random.nextInt(6)];
+        for(int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+
+    /**
+     * Measure a benchmark and keep its result.
+     */
+    private void measure(String name, long operations, Benchmark.Body body)
+    {
+        results.add(Benchmark.measure(name, operations, body));
+    }
+
+    /**
+     * Write the results to a file, one benchmark per line:
+     *     name <tab> ns/op <tab> B/op
+     */
+    private void save(Path file) throws IOException
+    {
+        List<String> lines = new ArrayList<>();
+        for(Benchmark.Result result : results) {
+            lines.add(result.getName() + "\t" + result.getNanosPerOperation()
+                      + "\t" + result.getBytesPerOperation());
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        System.out.println("Results saved to " + file);
+    }
+
+    /**
+     * Print every result next to the one of the same name in a file
+     * written by save.
+     */
+    private void compare(Path file) throws IOException
+    {
+        HashMap<String, double[]> baseline = new HashMap<>();
+        for(String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t");
+            if(fields.length == 3) {
+                baseline.put(fields[0], new double[] {
+                    Double.parseDouble(fields[1]), Double.parseDouble(fields[2]) });
+            }
+        }
+
+        System.out.println();
+        System.out.println("Compared with " + file + ":");
+        for(Benchmark.Result result : results) {
+            double[] base = baseline.get(result.getName());
+            if(base == null) {
+                System.out.printf("%-55s %10.1f ns/op   (no baseline)%n",
+                                  result.getName(), result.getNanosPerOperation());
+            }
+            else {
+                System.out.printf("%-55s %10.1f ns/op %+7.1f%% %10.1f B/op (was %.1f)%n",
+                                  result.getName(), result.getNanosPerOperation(),
+                                  100 * (result.getNanosPerOperation() / base[0] - 1),
+                                  result.getBytesPerOperation(), base[1]);
+            }
+        }
+    }
+
+    /**
+     * Create a grid of rooms joined to their neighbours, each holding the
+     * given number of items, with the exits compacted as in a loaded world.
+     */
+    private static World createWorld(int roomCount, int itemCount)
+    {
+        int side = (int) Math.ceil(Math.sqrt(roomCount));
+        String[] itemNames = itemNames(itemCount);
+        World world = new World(roomCount);
+        for(int id = 0; id < roomCount; id++) {
+            Room room = new Room("in room " + id + " of the grid");
+            world.addRoom("r" + id, room);
+            for(String name : itemNames) {
+                room.addItem(new Item(name, 0.1));
+            }
+        }
+        for(int id = 0; id < roomCount; id++) {
+            Room room = world.getRoom(id);
+            int x = id % side;
+            if(id >= side) {
+                room.setExit(DIRECTIONS[0], world.getRoom(id - side));
+            }
+            if(x + 1 < side && id + 1 < roomCount) {
+                room.setExit(DIRECTIONS[1], world.getRoom(id + 1));
+            }
+            if(id + side < roomCount) {
+                room.setExit(DIRECTIONS[2], world.getRoom(id + side));
+            }
+            if(x > 0) {
+                room.setExit(DIRECTIONS[3], world.getRoom(id - 1));
+            }
+        }
+        world.compactExits();
+        return world;
+    }
+
+    /**
+     * Return the names "item0", "item1", ... for the given number of items.
+     */
+    private static String[] itemNames(int count)
+    {
+        String[] names = new String[count];
+        for(int i = 0; i < count; i++) {
+            names[i] = "item" + i;
+        }
+        return names;
+    }
+
+    /**
+     * Parse a comma separated list of numbers.
+     */
+    private static int[] parseList(String list)
+    {
+        String[] parts = list.split(",");
+        int[] numbers = new int[parts.length];
+        for(int i = 0; i < parts.length; i++) {
+            numbers[i] = Integer.parseInt(parts[i].trim());
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,121 @@
+import java.util.List;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * InputLimits says how much input a server accepts from each session: how
+ * many commands may wait in its SessionInputQueue, what happens to those
+ * that do not fit, and how many commands per second it may play after a
+ * first burst. The defaults never hold back a player at the keyboard.
+ *
+ * Servers take the limits from their command line options:
+ *
+ *     -queue 64 -policy block|drop-oldest|reject -rate 20 -burst 40
+ *
+ * A rate of 0 plays commands as fast as they come. Lines longer than
+ * MAX_LINE_LENGTH are cut short, and counted as rejected commands.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class InputLimits
+{
+    // Longer lines of input are cut short.
+    public static final int MAX_LINE_LENGTH = 1024;
+
+    private int capacity;
+    private SessionInputQueue.Policy policy;
+    private double rate;
+    private int burst;
+
+    /**
+     * Create the default limits: 64 waiting commands, senders blocked
+     * when they are full, and 20 commands per second after a burst of 40.
+     */
+    public InputLimits()
+    {
+        this(64, SessionInputQueue.Policy.BLOCK, 20, 40);
+    }
+
+    /**
+     * Create limits.
+     * @param capacity The number of commands that may wait per session.
+     * @param policy What to do with commands that do not fit.
+     * @param rate The commands per second a session may play, or 0 for
+     *             no limit.
+     * @param burst The commands a session may play at once before the
+     *              rate applies.
+     */
+    public InputLimits(int capacity, SessionInputQueue.Policy policy, double rate, int burst)
+    {
+        this.capacity = capacity;
+        this.policy = policy;
+        this.rate = rate;
+        this.burst = burst;
+    }
+
+    /**
+     * Take the limit options out of a list of command line arguments,
+     * leaving the other arguments in place.
+     * @param args The arguments; the limit options are removed.
+     * @return The limits given, with defaults for those not given.
+     * @throws IllegalArgumentException if an option's value is not valid.
+     */
+    public static InputLimits fromOptions(List<String> args)
+    {
+        InputLimits limits = new InputLimits();
+        int i = 0;
+        while(i + 1 < args.size()) {
+            String value = args.get(i + 1);
+            switch(args.get(i)) {
+                case "-queue":  limits.capacity = Integer.parseInt(value); break;
+                case "-policy": limits.policy = parsePolicy(value); break;
+                case "-rate":   limits.rate = Double.parseDouble(value); break;
+                case "-burst":  limits.burst = Integer.parseInt(value); break;
+                default:
+                    i++;
+                    continue;
+            }
+            args.remove(i + 1);
+            args.remove(i);
+        }
+        return limits;
+    }
+
+    /**
+     * Create the input queue of a new session.
+     * @param stats The server-wide counts the queue adds to.
+     * @return An empty queue with these limits.
+     */
+    public SessionInputQueue newQueue(InputQueueStats stats)
+    {
+        return new SessionInputQueue(capacity, policy, new TokenBucket(rate, burst), stats);
+    }
+
+    /**
+     * @return What happens to commands that do not fit in a queue.
+     */
+    public SessionInputQueue.Policy getPolicy()
+    {
+        return policy;
+    }
+
+    /**
+     * @return A line such as "64 queued commands (block), 20.0 commands/s after 40".
+     */
+    public String toString()
+    {
+        String pace = rate > 0 ? rate + " commands/s after " + burst : "no rate limit";
+        return capacity + " queued commands (" + policy.toString().toLowerCase().replace('_', '-')
+               + "), " + pace;
+    }
+
+    /**
+     * Parse a policy name such as "drop-oldest".
+     */
+    private static SessionInputQueue.Policy parsePolicy(String name)
+    {
+        return SessionInputQueue.Policy.valueOf(name.toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,156 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * InputQueueStats counts what happens in the input queues of all sessions
+ * of a server (see SessionInputQueue): how many commands are waiting, and
+ * how many were queued, dropped, rejected or held back by the rate limit.
+ * A server registers its stats with the platform MBean server, so that a
+ * runaway client shows up in a JMX console while it is running.
+ *
+ * The counts may be updated by many sessions at once.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class InputQueueStats implements InputQueueStatsMBean
+{
+    // The name stats are registered under, followed by ",server=<name>".
+    public static final String OBJECT_NAME = "zuul:type=InputQueueStats";
+
+    private LongAdder queued;
+    private LongAdder accepted;
+    private LongAdder dropped;
+    private LongAdder rejected;
+    private LongAdder throttled;
+
+    /**
+     * Create stats with nothing counted.
+     */
+    public InputQueueStats()
+    {
+        queued = new LongAdder();
+        accepted = new LongAdder();
+        dropped = new LongAdder();
+        rejected = new LongAdder();
+        throttled = new LongAdder();
+    }
+
+    /**
+     * Register these stats with the platform MBean server. If that is
+     * not possible, the stats still work but are not visible over JMX.
+     * @param server The name of the server the stats belong to.
+     * @return true if the stats were registered.
+     */
+    public boolean register(String server)
+    {
+        try {
+            MBeanServer beans = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME + ",server=" + server);
+            if(beans.isRegistered(objectName)) {
+                beans.unregisterMBean(objectName);
+            }
+            beans.registerMBean(this, objectName);
+            return true;
+        }
+        catch(JMException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Record a change in the number of commands waiting.
+     * @param change The number of commands added, or removed if negative.
+     */
+    public void recordDepth(int change)
+    {
+        queued.add(change);
+    }
+
+    /**
+     * Record a command that was queued.
+     */
+    public void recordAccepted()
+    {
+        accepted.increment();
+    }
+
+    /**
+     * Record a waiting command thrown away to make room.
+     */
+    public void recordDropped()
+    {
+        dropped.increment();
+    }
+
+    /**
+     * Record a command thrown away because its queue was full.
+     */
+    public void recordRejected()
+    {
+        rejected.increment();
+    }
+
+    /**
+     * Record a command that had to wait for the rate limit.
+     */
+    public void recordThrottled()
+    {
+        throttled.increment();
+    }
+
+    @Override
+    public long getQueuedCount()
+    {
+        return queued.sum();
+    }
+
+    @Override
+    public long getAcceptedCount()
+    {
+        return accepted.sum();
+    }
+
+    @Override
+    public long getDroppedCount()
+    {
+        return dropped.sum();
+    }
+
+    @Override
+    public long getRejectedCount()
+    {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getThrottledCount()
+    {
+        return throttled.sum();
+    }
+
+    @Override
+    public void reset()
+    {
+        accepted.reset();
+        dropped.reset();
+        rejected.reset();
+        throttled.reset();
+    }
+
+    /**
+     * @return A line such as "queued=3 accepted=1200 dropped=0 rejected=40 throttled=310".
+     */
+    public String toString()
+    {
+        return "queued=" + getQueuedCount() + " accepted=" + getAcceptedCount()
+               + " dropped=" + getDroppedCount() + " rejected=" + getRejectedCount()
+               + " throttled=" + getThrottledCount();
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * This interface is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * The management interface of InputQueueStats, as seen in a JMX console
+ * such as jconsole under "zuul:type=InputQueueStats".
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public interface InputQueueStatsMBean
+{
+    /**
+     * @return The number of commands waiting in all sessions' queues now.
+     */
+    long getQueuedCount();
+
+    /**
+     * @return The number of commands queued.
+     */
+    long getAcceptedCount();
+
+    /**
+     * @return The number of waiting commands thrown away to make room
+     *         for newer ones.
+     */
+    long getDroppedCount();
+
+    /**
+     * @return The number of commands thrown away because a queue was full.
+     */
+    long getRejectedCount();
+
+    /**
+     * @return The number of times a command had to wait for the rate limit.
+     */
+    long getThrottledCount();
+
+    /**
+     * Forget all counts except the number of commands waiting.
+     */
+    void reset();
+}
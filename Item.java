@@ -5,26 +5,50 @@
  * and picked up by players. Items provide interactive elements to
  * enhance the gaming experience.
  * 
+ * The weight is kept in whole milligrams (see Weight), so that weights
+ * add up exactly.
+ * 
  * @author oliviad118
  * @version 2025.11.11
  */
 public class Item
 {
     private String description;
-    private double weight;
+    private long weight;    // in milligrams
 
     /**
      * Create an item with a description and weight.
      * 
      * @param description A description of the item
-     * @param weight The weight of the item in kilograms
+     * @param weight The weight of the item in kilograms, which is kept
+     *               to the nearest milligram
      */
     public Item(String description, double weight)
+    {
+        this(Weight.fromKilograms(weight), description);
+    }
+
+    /**
+     * Create an item with a description and a weight in milligrams.
+     */
+    private Item(long weight, String description)
     {
         this.description = description;
         this.weight = weight;
     }
 
+    /**
+     * Create an item with a description and a weight in milligrams.
+     * 
+     * @param description A description of the item
+     * @param milligrams The weight of the item in milligrams
+     * @return The new item
+     */
+    public static Item ofMilligrams(String description, long milligrams)
+    {
+        return new Item(milligrams, description);
+    }
+
     /**
      * Get the description of this item.
      * 
@@ -38,9 +62,9 @@ public class Item
     /**
      * Get the weight of this item.
      * 
-     * @return The item's weight in kilograms
+     * @return The item's weight in milligrams
      */
-    public double getWeight()
+    public long getWeight()
     {
         return weight;
     }
@@ -53,6 +77,8 @@ public class Item
     @Override
     public String toString()
     {
-        return description + " (weight: " + weight + "kg)";
+        return Weight.append(new StringBuilder(description.length() + 24)
+                                 .append(description).append(" (weight: "), weight)
+                     .append("kg)").toString();
     }
 }
\ No newline at end of file
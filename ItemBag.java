@@ -0,0 +1,238 @@
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * An ItemBag holds a collection of items indexed by their description, so
+ * that an item can be found or added by name in constant time no matter
+ * how many items the bag holds. Several items may share a description;
+ * they are kept in the order they were added. Removing the first item of
+ * a description, the one get returns and the one take and drop move,
+ * takes constant time too; removing or looking for any other takes time
+ * in proportion to the number of items sharing its description.
+ *
+ * Iterating over a bag lists the items grouped by description, in the
+ * order each description first appeared. The iterator cannot remove items;
+ * use remove instead.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class ItemBag extends AbstractCollection<Item>
+{
+    // Each description maps to its item, or to an ArrayDeque<Item> when
+    // several items share it; most descriptions have only one item.
+    // Many bags stay empty, so the map is only created when needed.
+    private LinkedHashMap<String, Object> itemsByName;
+    private int size;
+
+    /**
+     * Create an empty bag.
+     */
+    public ItemBag()
+    {
+        itemsByName = null;
+    }
+
+    /**
+     * Add an item to the bag.
+     * @param item The item to add.
+     * @return true, as the bag always changes.
+     */
+    @Override
+    public boolean add(Item item)
+    {
+        if(itemsByName == null) {
+            itemsByName = new LinkedHashMap<>();
+        }
+        Object sameName = itemsByName.putIfAbsent(item.getDescription(), item);
+        if(sameName instanceof Item) {
+            ArrayDeque<Item> items = new ArrayDeque<>(4);
+            items.addLast((Item) sameName);
+            items.addLast(item);
+            itemsByName.put(item.getDescription(), items);
+        }
+        else if(sameName != null) {
+            group(sameName).addLast(item);
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Remove an item from the bag. This takes constant time if the item
+     * is the first of its description, as returned by get.
+     * @param object The item to remove.
+     * @return true if the item was removed, false if it wasn't in the bag.
+     */
+    @Override
+    public boolean remove(Object object)
+    {
+        if(!(object instanceof Item)) {
+            return false;
+        }
+        Item item = (Item) object;
+        if(size == 0) {
+            return false;
+        }
+        Object sameName = itemsByName.get(item.getDescription());
+        if(sameName == item) {
+            itemsByName.remove(item.getDescription());
+        }
+        else if(sameName instanceof ArrayDeque && group(sameName).removeFirstOccurrence(item)) {
+            ArrayDeque<Item> items = group(sameName);
+            if(items.size() == 1) {
+                itemsByName.put(item.getDescription(), items.peekFirst());
+            }
+        }
+        else {
+            return false;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Find an item by description. If several items share the
+     * description, the one added first is returned.
+     * @param description The description of the item to find.
+     * @return The item if found, null otherwise.
+     */
+    public Item get(String description)
+    {
+        if(size == 0) {
+            return null;
+        }
+        Object sameName = itemsByName.get(description);
+        if(sameName instanceof ArrayDeque) {
+            return group(sameName).peekFirst();
+        }
+        return (Item) sameName;
+    }
+
+    /**
+     * Check whether an item is in the bag.
+     * @param object The item to look for.
+     * @return true if the item is in the bag.
+     */
+    @Override
+    public boolean contains(Object object)
+    {
+        if(!(object instanceof Item) || size == 0) {
+            return false;
+        }
+        Object sameName = itemsByName.get(((Item) object).getDescription());
+        if(sameName instanceof ArrayDeque) {
+            return group(sameName).contains(object);
+        }
+        return sameName == object;
+    }
+
+    /**
+     * Count the items with a description.
+     * @param description The description to count.
+     * @return The number of items with that description.
+     */
+    public int count(String description)
+    {
+        if(size == 0) {
+            return 0;
+        }
+        Object sameName = itemsByName.get(description);
+        if(sameName instanceof ArrayDeque) {
+            return group(sameName).size();
+        }
+        return sameName == null ? 0 : 1;
+    }
+
+    /**
+     * @return The distinct descriptions of the items in the bag, as a
+     *         read-only view.
+     */
+    public Set<String> descriptions()
+    {
+        if(size == 0) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(itemsByName.keySet());
+    }
+
+    /**
+     * @return The number of items in the bag.
+     */
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Remove all items from the bag.
+     */
+    @Override
+    public void clear()
+    {
+        itemsByName = null;
+        size = 0;
+    }
+
+    /**
+     * @return An iterator over the items in the bag.
+     */
+    @Override
+    public Iterator<Item> iterator()
+    {
+        return new Iterator<Item>()
+        {
+            private Iterator<Object> names = size == 0 ? Collections.emptyIterator()
+                                                       : itemsByName.values().iterator();
+            private Iterator<Item> group = null;
+            private Item single = null;
+
+            @Override
+            public boolean hasNext()
+            {
+                while(single == null && (group == null || !group.hasNext()) && names.hasNext()) {
+                    Object sameName = names.next();
+                    if(sameName instanceof ArrayDeque) {
+                        group = group(sameName).iterator();
+                    }
+                    else {
+                        single = (Item) sameName;
+                    }
+                }
+                return single != null || (group != null && group.hasNext());
+            }
+
+            @Override
+            public Item next()
+            {
+                if(!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if(single != null) {
+                    Item item = single;
+                    single = null;
+                    return item;
+                }
+                return group.next();
+            }
+        };
+    }
+
+    /**
+     * Return the items sharing a description, stored as one map value.
+     */
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<Item> group(Object sameName)
+    {
+        return (ArrayDeque<Item>) sameName;
+    }
+}
@@ -0,0 +1,224 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * An ItemIndex knows, for every item description in a world, which rooms
+ * hold such items and which players carry them, and how many there are
+ * in all. Rooms and players keep it up to date themselves as items are
+ * added and removed, so finding an item never means searching the world:
+ * counting items of a description takes constant time, and listing their
+ * places takes time in proportion to the number of places listed.
+ *
+ * Every description ever indexed is also kept in a FuzzyMatcher, so that
+ * a mistyped item name can be matched to the description it most likely
+ * means without comparing it to every name in the world.
+ *
+ * The index may be updated and queried by many sessions at once. While
+ * an item is moving from a room to a player, it may for a moment be
+ * listed in both places.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class ItemIndex
+{
+    private ConcurrentHashMap<String, Entry> entries;
+    private FuzzyMatcher names;
+
+    /**
+     * Create an empty index.
+     */
+    public ItemIndex()
+    {
+        entries = new ConcurrentHashMap<>();
+        names = new FuzzyMatcher();
+    }
+
+    /**
+     * Record that a room has gained an item.
+     * @param description The description of the item.
+     * @param room The room that now holds it.
+     */
+    public void add(String description, Room room)
+    {
+        Entry entry = entryFor(description);
+        entry.rooms.merge(room, 1, Integer::sum);
+        entry.count.increment();
+    }
+
+    /**
+     * Record that a player has gained an item.
+     * @param description The description of the item.
+     * @param player The player who now carries it.
+     */
+    public void add(String description, Player player)
+    {
+        Entry entry = entryFor(description);
+        entry.players.merge(player, 1, Integer::sum);
+        entry.count.increment();
+    }
+
+    /**
+     * Record that a room has lost an item.
+     * @param description The description of the item.
+     * @param room The room that held it.
+     */
+    public void remove(String description, Room room)
+    {
+        Entry entry = entries.get(description);
+        if(entry != null) {
+            forget(entry.rooms, room);
+            entry.count.decrement();
+        }
+    }
+
+    /**
+     * Record that a player has lost an item.
+     * @param description The description of the item.
+     * @param player The player who carried it.
+     */
+    public void remove(String description, Player player)
+    {
+        Entry entry = entries.get(description);
+        if(entry != null) {
+            forget(entry.players, player);
+            entry.count.decrement();
+        }
+    }
+
+    /**
+     * Return how many items of a description there are, in rooms and
+     * carried by players together.
+     * @param description The description, for example "key".
+     * @return The number of such items.
+     */
+    public long getCount(String description)
+    {
+        Entry entry = entries.get(description);
+        return entry == null ? 0 : entry.count.sum();
+    }
+
+    /**
+     * Return the rooms holding items of a description.
+     * @param description The description of the items.
+     * @param limit The largest number of rooms to return.
+     * @return Up to limit rooms, in no particular order.
+     */
+    public List<Room> getRooms(String description, int limit)
+    {
+        Entry entry = entries.get(description);
+        return entry == null ? new ArrayList<>() : first(entry.rooms, limit);
+    }
+
+    /**
+     * Return the players carrying items of a description.
+     * @param description The description of the items.
+     * @param limit The largest number of players to return.
+     * @return Up to limit players, in no particular order.
+     */
+    public List<Player> getPlayers(String description, int limit)
+    {
+        Entry entry = entries.get(description);
+        return entry == null ? new ArrayList<>() : first(entry.players, limit);
+    }
+
+    /**
+     * Return the number of rooms holding items of a description.
+     * @param description The description of the items.
+     * @return The number of rooms.
+     */
+    public int getRoomCount(String description)
+    {
+        Entry entry = entries.get(description);
+        return entry == null ? 0 : entry.rooms.size();
+    }
+
+    /**
+     * Return the number of players carrying items of a description.
+     * @param description The description of the items.
+     * @return The number of players.
+     */
+    public int getPlayerCount(String description)
+    {
+        Entry entry = entries.get(description);
+        return entry == null ? 0 : entry.players.size();
+    }
+
+    /**
+     * Return the description a mistyped item name most likely means,
+     * among the descriptions that pass a test, for example those of the
+     * items in one room.
+     * @param typed The item name as typed.
+     * @param present Which descriptions may be returned.
+     * @return The closest such description, or null if there is none or
+     *         no single closest one.
+     */
+    public String closestDescription(String typed, Predicate<String> present)
+    {
+        return names.closest(typed, present);
+    }
+
+    /**
+     * @return The number of different item descriptions in the index.
+     */
+    public int getDescriptionCount()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Return the entry of a description, creating it if needed.
+     */
+    private Entry entryFor(String description)
+    {
+        Entry entry = entries.get(description);
+        if(entry == null) {
+            entry = entries.computeIfAbsent(description, key -> {
+                names.add(key);
+                return new Entry();
+            });
+        }
+        return entry;
+    }
+
+    /**
+     * Count one item less for a holder, forgetting the holder when it
+     * holds no more such items.
+     */
+    private static <T> void forget(ConcurrentHashMap<T, Integer> holders, T holder)
+    {
+        holders.computeIfPresent(holder, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * Return up to limit holders.
+     */
+    private static <T> List<T> first(ConcurrentHashMap<T, Integer> holders, int limit)
+    {
+        List<T> result = new ArrayList<>(Math.min(limit, 16));
+        for(T holder : holders.keySet()) {
+            if(result.size() >= limit) {
+                break;
+            }
+            result.add(holder);
+        }
+        return result;
+    }
+
+    /**
+     * The rooms and players holding items of one description, with how
+     * many items each holds, and the total number of such items.
+     */
+    private static class Entry
+    {
+        final ConcurrentHashMap<Room, Integer> rooms = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Player, Integer> players = new ConcurrentHashMap<>();
+        final LongAdder count = new LongAdder();
+    }
+}
@@ -0,0 +1,154 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A stress test of moving items between shared rooms and players. Every
+ * thread plays one player who wanders between rooms, taking and dropping
+ * items, while the other threads do the same in the same rooms. The test
+ * measures transfers per second for growing numbers of threads, and then
+ * checks that no item was lost or duplicated: every item must be in
+ * exactly one room or inventory.
+ *
+ *     java ItemTransferBenchmark [rooms] [items] [seconds per run]
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class ItemTransferBenchmark
+{
+    private static final String[] NAMES = { "key", "map", "coin", "book", "lamp", "cup", "pen", "rope" };
+
+    /**
+     * Run the stress test.
+     * @param args The optional number of rooms (default 64), number of
+     *             items (default 4096) and seconds per run (default 2).
+     * @throws InterruptedException if interrupted while waiting for players.
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int itemCount = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+        double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 2;
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println(cores + " cores, " + roomCount + " rooms, " + itemCount + " items");
+
+        for(int threads = 1; threads <= Math.max(8, cores * 2); threads *= 2) {
+            run(roomCount, itemCount, threads, seconds);
+        }
+    }
+
+    /**
+     * Let the given number of players take and drop items for a while,
+     * then check that every item is still in exactly one place.
+     */
+    private static void run(int roomCount, int itemCount, int threads, double seconds)
+        throws InterruptedException
+    {
+        Room[] rooms = new Room[roomCount];
+        List<Item> allItems = new ArrayList<>();
+        for(int i = 0; i < roomCount; i++) {
+            rooms[i] = new Room("in room " + i);
+        }
+        for(int i = 0; i < itemCount; i++) {
+            Item item = new Item(NAMES[i % NAMES.length], 0.1 + (i % 10) * 0.1);
+            allItems.add(item);
+            rooms[i % roomCount].addItem(item);
+        }
+
+        Player[] players = new Player[threads];
+        AtomicLong transfers = new AtomicLong();
+        long deadline = System.nanoTime() + (long) (seconds * 1e9);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for(int t = 0; t < threads; t++) {
+            Player player = new Player();
+            players[t] = player;
+            long seed = t;
+            Thread worker = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                long moved = 0;
+                try {
+                    start.await();
+                }
+                catch(InterruptedException e) {
+                    return;
+                }
+                while(System.nanoTime() < deadline) {
+                    for(int i = 0; i < 1000; i++) {
+                        Room room = rooms[random.nextInt(roomCount)];
+                        String name = NAMES[random.nextInt(NAMES.length)];
+                        if(random.nextBoolean()) {
+                            if(room.takeItem(name, player) == Room.Transfer.TAKEN) {
+                                moved++;
+                            }
+                        }
+                        else {
+                            Item item = player.getItem(name);
+                            if(item != null && room.dropItem(item, player)) {
+                                moved++;
+                            }
+                        }
+                    }
+                }
+                transfers.addAndGet(moved);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for(Thread worker : workers) {
+            worker.join();
+        }
+        double elapsed = (System.nanoTime() - begin) / 1e9;
+
+        String check = checkConservation(rooms, players, allItems);
+        System.out.printf("%2d threads: %12.0f transfers/s   %s%n",
+                          threads, transfers.get() / elapsed, check);
+    }
+
+    /**
+     * Check that every item is in exactly one room or inventory, and that
+     * no player carries more than they may.
+     */
+    private static String checkConservation(Room[] rooms, Player[] players, List<Item> allItems)
+    {
+        IdentityHashMap<Item, Integer> seen = new IdentityHashMap<>();
+        List<Item> found = new ArrayList<>();
+        for(Room room : rooms) {
+            found.addAll(room.getItems());
+        }
+        for(Player player : players) {
+            found.addAll(player.getInventory());
+            if(player.getTotalWeight() > player.getMaxWeight()) {
+                return "FAILED: a player carries more than allowed";
+            }
+        }
+        for(Item item : found) {
+            seen.merge(item, 1, Integer::sum);
+        }
+        int duplicated = 0;
+        for(int count : seen.values()) {
+            if(count > 1) {
+                duplicated++;
+            }
+        }
+        int lost = 0;
+        for(Item item : allItems) {
+            if(!seen.containsKey(item)) {
+                lost++;
+            }
+        }
+        if(duplicated == 0 && lost == 0 && found.size() == allItems.size()) {
+            return "ok: all " + allItems.size() + " items accounted for";
+        }
+        return "FAILED: " + duplicated + " duplicated, " + lost + " lost";
+    }
+}
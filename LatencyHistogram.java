@@ -0,0 +1,151 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A LatencyHistogram counts how long operations take, so that percentiles
+ * such as the median or the 99th percentile can be reported. Values are
+ * counted in buckets: every power of two is split into eight sub-buckets,
+ * so a reported percentile is at most 12.5% above the true value.
+ *
+ * Recording a value neither locks nor allocates, so many threads can
+ * record into one histogram at the same time.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class LatencyHistogram
+{
+    // Number of sub-buckets per power of two, as a power of two.
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private AtomicLongArray counts;
+
+    /**
+     * Create an empty histogram.
+     */
+    public LatencyHistogram()
+    {
+        counts = new AtomicLongArray(BUCKETS);
+    }
+
+    /**
+     * Record one value.
+     * @param nanos The value to record, for example a time in nanoseconds.
+     *              Negative values are counted as zero.
+     */
+    public void record(long nanos)
+    {
+        counts.incrementAndGet(bucketOf(Math.max(nanos, 0)));
+    }
+
+    /**
+     * @return The number of values recorded.
+     */
+    public long getCount()
+    {
+        long count = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Return the value below which the given fraction of all recorded
+     * values lie, for example 0.99 for the 99th percentile.
+     * @param fraction The fraction, between 0 and 1.
+     * @return The upper bound of the bucket holding the percentile,
+     *         or 0 if nothing has been recorded.
+     */
+    public long getPercentile(double fraction)
+    {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if(count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if(seen >= rank) {
+                return highestValueIn(i);
+            }
+        }
+        return highestValueIn(BUCKETS - 1);
+    }
+
+    /**
+     * Add all values recorded in another histogram to this one.
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other)
+    {
+        for(int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if(count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+    }
+
+    /**
+     * Forget all recorded values.
+     */
+    public void reset()
+    {
+        for(int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Return a summary of the histogram, with times shown in microseconds,
+     * in the form:
+     *     count=1200 p50=12.3us p99=80.1us p999=150.0us
+     * @return A summary of the recorded values.
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("count=%d p50=%.1fus p99=%.1fus p999=%.1fus",
+                             getCount(), getPercentile(0.50) / 1e3,
+                             getPercentile(0.99) / 1e3, getPercentile(0.999) / 1e3);
+    }
+
+    /**
+     * Return the bucket a value is counted in. Values below SUB_BUCKETS
+     * have a bucket each; larger values share a bucket with the values
+     * that agree with them in their highest SUB_BUCKET_BITS + 1 bits.
+     */
+    private static int bucketOf(long value)
+    {
+        if(value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> exponent) & (SUB_BUCKETS - 1);
+        return (exponent + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Return the largest value counted in the given bucket.
+     */
+    private static long highestValueIn(int bucket)
+    {
+        if(bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << exponent;
+        return lowest + (1L << exponent) - 1;
+    }
+}
@@ -0,0 +1,346 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * The load generator plays a shared world with many bots at once, to find
+ * out how many players a server can hold. Every bot is a Game of its own,
+ * started in a random room and played by a virtual thread, which makes up
+ * commands as a wandering player would and hands them to Game.execute,
+ * the path typed commands take. The commands follow a weighted mix:
+ *
+ *     go    through a random exit of the bot's room
+ *     back  to the room before
+ *     take  a random item in the room
+ *     drop  a random item carried
+ *     eat   the cookie, if one is carried
+ *     look  around
+ *
+ * A command that does not fit the bot's situation, such as dropping with
+ * empty hands, becomes a look. The bots are told about each other through
+ * a RoomEventBus, as the players of a server are.
+ *
+ * The run is repeated for growing numbers of bots, in a fresh world each
+ * time. After a warm-up, the generator counts the commands played and
+ * records how long each took, and reports the commands per second, the
+ * latency percentiles and the memory each bot needs.
+ *
+ *     java LoadGenerator [-world file | -rooms n -items n] [-bots 1,10,100,...]
+ *                        [-seconds s] [-warmup s] [-think ms] [-mix go=40,back=10,...] [-noevents]
+ *
+ * Without -world, a world of 100000 rooms and 200000 items is generated.
+ * Without -think, bots play as fast as they can, giving way to each other
+ * after every command; with it, they pause for a random time of that mean
+ * between commands, as people do.
+ *
+ * Each bot takes about 13 KB, so 100000 bots need a heap of well over
+ * 1.3 GB; give the JVM room with -Xmx, or the collector's pauses will be
+ * what is measured.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class LoadGenerator
+{
+    /**
+     * The kinds of command a bot plays.
+     */
+    public enum Action
+    {
+        GO, BACK, TAKE, DROP, EAT, LOOK
+    }
+
+    private static final String DEFAULT_MIX = "go=40,back=10,take=20,drop=15,eat=5,look=10";
+    private static final String DEFAULT_BOTS = "1,10,100,1000,10000,100000";
+
+    private String worldFile;       // null for a generated world
+    private int roomCount;
+    private int itemCount;
+    private int[] cumulativeWeights;    // by Action ordinal, each the sum up to it
+    private double thinkMillis;
+    private boolean events;
+
+    private volatile boolean stopping;
+    private LongAdder commands;
+    private LatencyHistogram latencies;
+
+    /**
+     * Run the load generator from the command line.
+     * @param args The options described above.
+     * @throws IOException if the world cannot be loaded.
+     * @throws InterruptedException if interrupted while the bots play.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        LoadGenerator generator = new LoadGenerator();
+        String bots = DEFAULT_BOTS;
+        double seconds = 5;
+        double warmup = 2;
+        for(int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if(option.equals("-noevents")) {
+                generator.events = false;
+                continue;
+            }
+            if(i + 1 >= args.length) {
+                System.out.println("Missing value for " + option);
+                return;
+            }
+            String value = args[++i];
+            switch(option) {
+                case "-world":   generator.worldFile = value; break;
+                case "-rooms":   generator.roomCount = Integer.parseInt(value); break;
+                case "-items":   generator.itemCount = Integer.parseInt(value); break;
+                case "-bots":    bots = value; break;
+                case "-seconds": seconds = Double.parseDouble(value); break;
+                case "-warmup":  warmup = Double.parseDouble(value); break;
+                case "-think":   generator.thinkMillis = Double.parseDouble(value); break;
+                case "-mix":     generator.setMix(value); break;
+                default:
+                    System.out.println("Unknown option " + option);
+                    return;
+            }
+        }
+
+        System.out.printf("%d processors, mix %s, think time %s, %s%n",
+                          Runtime.getRuntime().availableProcessors(), generator.getMix(),
+                          generator.thinkMillis > 0 ? generator.thinkMillis + " ms" : "none",
+                          generator.events ? "room events on" : "room events off");
+        for(String count : bots.split(",")) {
+            generator.run(Integer.parseInt(count.trim()), warmup, seconds);
+        }
+    }
+
+    /**
+     * Create a load generator with the default mix, in a generated world
+     * of 100000 rooms and 200000 items, with no think time and with room
+     * events.
+     */
+    public LoadGenerator()
+    {
+        roomCount = 100_000;
+        itemCount = 200_000;
+        events = true;
+        cumulativeWeights = parseMix(DEFAULT_MIX);
+    }
+
+    /**
+     * Set the mix of commands the bots play.
+     * @param mix The weight of each kind of command, such as
+     *            "go=40,back=10,take=20,drop=15,eat=5,look=10". Kinds
+     *            left out are not played.
+     * @throws IllegalArgumentException if the mix is not valid.
+     */
+    public void setMix(String mix)
+    {
+        cumulativeWeights = parseMix(mix);
+    }
+
+    /**
+     * Turn a mix of commands into cumulative weights by Action ordinal.
+     */
+    private static int[] parseMix(String mix)
+    {
+        int[] weights = new int[Action.values().length];
+        for(String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split("=");
+            if(nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("expected command=weight: " + part);
+            }
+            int weight = Integer.parseInt(nameAndWeight[1]);
+            if(weight < 0) {
+                throw new IllegalArgumentException("negative weight: " + part);
+            }
+            weights[Action.valueOf(nameAndWeight[0].toUpperCase()).ordinal()] = weight;
+        }
+        for(int i = 1; i < weights.length; i++) {
+            weights[i] += weights[i - 1];
+        }
+        if(weights[weights.length - 1] == 0) {
+            throw new IllegalArgumentException("no command has a weight: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * @return The mix of commands, such as "go=40,back=10,take=20,drop=15,eat=5,look=10".
+     */
+    public String getMix()
+    {
+        StringBuilder mix = new StringBuilder();
+        int previous = 0;
+        for(Action action : Action.values()) {
+            int weight = cumulativeWeights[action.ordinal()] - previous;
+            previous = cumulativeWeights[action.ordinal()];
+            if(weight > 0) {
+                if(mix.length() > 0) {
+                    mix.append(',');
+                }
+                mix.append(action.toString().toLowerCase()).append('=').append(weight);
+            }
+        }
+        return mix.toString();
+    }
+
+    /**
+     * Let a number of bots play a fresh world, and print what was measured.
+     * @param botCount The number of bots.
+     * @param warmup Seconds to play before measuring.
+     * @param seconds Seconds to measure.
+     * @throws IOException if the world cannot be loaded.
+     * @throws InterruptedException if interrupted while the bots play.
+     */
+    public void run(int botCount, double warmup, double seconds) throws IOException, InterruptedException
+    {
+        World world = createWorld();
+        RoomEventBus bus = events ? new RoomEventBus() : null;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        List<Bot> bots = new ArrayList<>(botCount);
+        for(int i = 0; i < botCount; i++) {
+            bots.add(new Bot(world, bus, i));
+        }
+        System.gc();
+        double bytesPerBot = (double) (memory.getHeapMemoryUsage().getUsed() - heapBefore) / botCount;
+
+        stopping = false;
+        commands = new LongAdder();
+        latencies = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>(botCount);
+        for(Bot bot : bots) {
+            threads.add(Thread.ofVirtual().start(bot));
+        }
+        Thread.sleep((long) (warmup * 1000));
+        commands.reset();
+        latencies.reset();
+        long start = System.nanoTime();
+        Thread.sleep((long) (seconds * 1000));
+        long played = commands.sum();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        String measured = latencies.toString();
+        stopping = true;
+        for(Thread thread : threads) {
+            thread.join();
+        }
+
+        // with few bots, the memory measured is mostly noise
+        String botMemory = botCount >= 100 ? String.format("%6.1f KB/bot", bytesPerBot / 1024) : "     - KB/bot";
+        System.out.printf("%7d bots: %10.0f commands/s, %s, %s%n",
+                          botCount, played / elapsed, botMemory, measured);
+    }
+
+    /**
+     * Load or generate the world the bots play.
+     */
+    private World createWorld() throws IOException
+    {
+        if(worldFile != null) {
+            return new WorldLoader().load(Paths.get(worldFile));
+        }
+        return new WorldGenerator(42).generate(roomCount, itemCount);
+    }
+
+    /**
+     * A bot: a game played by made-up commands.
+     */
+    private class Bot implements Runnable
+    {
+        private Game game;
+        private OutputSink out;
+        private SplittableRandom random;
+
+        Bot(World world, RoomEventBus bus, int number)
+        {
+            out = OutputSink.discard();
+            game = new Game(world, InputStream.nullInputStream(), out);
+            random = new SplittableRandom(number);
+            game.getPlayer().setName("Bot " + number);
+            game.setCurrentRoom(world.getRoom(random.nextInt(world.getRoomCount())));
+            game.setEventBus(bus);
+        }
+
+        public void run()
+        {
+            // the histogram of this run is made once all its bots exist
+            game.setLatencyHistogram(latencies);
+            while(!stopping) {
+                game.execute(nextCommand());
+                out.flush();
+                commands.increment();
+                if(thinkMillis > 0) {
+                    double pause = -Math.log(1 - random.nextDouble()) * thinkMillis;
+                    LockSupport.parkNanos((long) (pause * 1_000_000));
+                }
+                else {
+                    // virtual threads are not time-sliced, so take turns
+                    Thread.yield();
+                }
+            }
+        }
+
+        /**
+         * Make up the next command, following the mix.
+         */
+        private String nextCommand()
+        {
+            int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int kind = 0;
+            while(pick >= cumulativeWeights[kind]) {
+                kind++;
+            }
+            Room room = game.getCurrentRoom();
+            Player player = game.getPlayer();
+            switch(Action.values()[kind]) {
+                case GO:
+                    Set<String> exits = room.getExitDirections();
+                    if(!exits.isEmpty()) {
+                        return "go " + pick(new ArrayList<>(exits));
+                    }
+                    break;
+                case BACK:
+                    return "back";
+                case TAKE:
+                    List<Item> items = room.getItems();
+                    if(!items.isEmpty()) {
+                        return "take " + pick(items).getDescription();
+                    }
+                    break;
+                case DROP:
+                    List<Item> carried = player.getInventory();
+                    if(!carried.isEmpty()) {
+                        return "drop " + pick(carried).getDescription();
+                    }
+                    break;
+                case EAT:
+                    if(player.getItem("cookie") != null) {
+                        return "eat cookie";
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return "look";
+        }
+
+        /**
+         * Pick one of a list at random.
+         */
+        private <T> T pick(List<T> list)
+        {
+            return list.get(random.nextInt(list.size()));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A Mailbox holds the RoomEvents a session has been sent but has not yet
+ * shown its player. Any number of threads may post events while the
+ * session's own thread takes them out; posting never waits, so a player
+ * who does not read what is sent cannot hold up the player who caused it.
+ * The mailbox holds a fixed number of events; when it is full, the oldest
+ * is thrown away.
+ *
+ * A session that is waiting for its player's input can ask to be told
+ * when an event arrives in an empty mailbox, so that it can show the
+ * event straight away.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class Mailbox
+{
+    // How many events a mailbox holds unless told otherwise.
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private ConcurrentLinkedQueue<RoomEvent> events;
+    private AtomicInteger size;
+    private int capacity;
+    private AtomicLong dropped;             // thrown away because the mailbox was full
+    private volatile Runnable listener;     // told when an empty mailbox gets an event
+
+    /**
+     * Create an empty mailbox of the default capacity.
+     */
+    public Mailbox()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an empty mailbox.
+     * @param capacity The number of events the mailbox holds.
+     */
+    public Mailbox(int capacity)
+    {
+        this.capacity = Math.max(capacity, 1);
+        events = new ConcurrentLinkedQueue<>();
+        size = new AtomicInteger();
+        dropped = new AtomicLong();
+    }
+
+    /**
+     * Put an event in the mailbox without waiting, throwing away the
+     * oldest event if the mailbox is full. If the mailbox was empty, its
+     * listener is told.
+     * @param event The event to post.
+     */
+    public void post(RoomEvent event)
+    {
+        events.add(event);
+        // counted after adding, so that a taker never sees a count
+        // without its event
+        int before = size.getAndIncrement();
+        if(before >= capacity && events.poll() != null) {
+            size.decrementAndGet();
+            dropped.incrementAndGet();
+        }
+        Runnable wake = listener;
+        if(before == 0 && wake != null) {
+            wake.run();
+        }
+    }
+
+    /**
+     * Take the oldest event out of the mailbox.
+     * @return The oldest event, or null if the mailbox is empty.
+     */
+    public RoomEvent poll()
+    {
+        RoomEvent event = events.poll();
+        if(event != null) {
+            size.decrementAndGet();
+        }
+        return event;
+    }
+
+    /**
+     * Be told whenever an event arrives in the empty mailbox. The listener
+     * is run by the thread posting the event, so it must be quick and
+     * must not wait.
+     * @param listener The listener, or null for none.
+     */
+    public void setListener(Runnable listener)
+    {
+        this.listener = listener;
+    }
+
+    /**
+     * @return true if no events are waiting.
+     */
+    public boolean isEmpty()
+    {
+        return events.isEmpty();
+    }
+
+    /**
+     * @return The number of events waiting.
+     */
+    public int size()
+    {
+        return Math.max(size.get(), 0);
+    }
+
+    /**
+     * @return The number of events thrown away because the mailbox was full.
+     */
+    public long getDroppedCount()
+    {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A MemorySink keeps a game's output in memory, for tests and tools that
+ * look at what the game printed.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class MemorySink extends OutputSink
+{
+    private StringBuilder contents = new StringBuilder();
+
+    /**
+     * Return everything flushed so far.
+     * @return The output.
+     */
+    public String getContents()
+    {
+        return contents.toString();
+    }
+
+    /**
+     * Forget everything flushed so far.
+     */
+    public void clear()
+    {
+        contents.setLength(0);
+    }
+
+    /**
+     * Keep the output.
+     * @param text The output to keep.
+     */
+    @Override
+    protected void write(CharSequence text)
+    {
+        contents.append(text);
+    }
+}
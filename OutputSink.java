@@ -0,0 +1,171 @@
+import java.io.IOException;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * An OutputSink is where a game's output goes. Everything printed is
+ * collected in a buffer that is reused from command to command, and is
+ * only passed on when the sink is flushed, normally once per command.
+ * Printing a line therefore costs no more than appending to a
+ * StringBuilder, and the whole output of a command reaches its
+ * destination in one write.
+ *
+ * Subclasses decide where flushed output goes: ConsoleSink writes to the
+ * terminal, SocketSink to a network connection and MemorySink keeps it in
+ * memory. Like PrintStream, a sink does not throw when its destination
+ * fails; checkError tells whether it has.
+ *
+ * A sink belongs to one game and is not safe for use by several threads
+ * at once.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public abstract class OutputSink
+{
+    private static final String LINE_SEPARATOR = "\n";
+
+    private StringBuilder buffer;   // output not yet flushed
+    private boolean error;          // true once a write has failed
+
+    /**
+     * Create a sink with an empty buffer.
+     */
+    protected OutputSink()
+    {
+        buffer = new StringBuilder(1024);
+    }
+
+    /**
+     * Return a sink that throws all output away.
+     * @return A new discarding sink.
+     */
+    public static OutputSink discard()
+    {
+        return new OutputSink() {
+            @Override
+            protected void write(CharSequence text)
+            {
+                // nothing to do
+            }
+        };
+    }
+
+    /**
+     * Print a string.
+     * @param text The string to print.
+     */
+    public void print(String text)
+    {
+        buffer.append(text);
+    }
+
+    /**
+     * Print a character.
+     * @param c The character to print.
+     */
+    public void print(char c)
+    {
+        buffer.append(c);
+    }
+
+    /**
+     * Print a number.
+     * @param number The number to print.
+     */
+    public void print(double number)
+    {
+        buffer.append(number);
+    }
+
+    /**
+     * Print an object, as its toString would.
+     * @param object The object to print.
+     */
+    public void print(Object object)
+    {
+        buffer.append(object);
+    }
+
+    /**
+     * End the current line.
+     */
+    public void println()
+    {
+        buffer.append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Print a string and end the line.
+     * @param text The string to print.
+     */
+    public void println(String text)
+    {
+        buffer.append(text).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Print an object, as its toString would, and end the line.
+     * @param object The object to print.
+     */
+    public void println(Object object)
+    {
+        buffer.append(object).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Pass everything printed since the last flush on to the destination,
+     * in one write, and empty the buffer for reuse.
+     */
+    public void flush()
+    {
+        if(buffer.length() == 0) {
+            return;
+        }
+        try {
+            write(buffer);
+        }
+        catch(IOException e) {
+            error = true;
+        }
+        buffer.setLength(0);
+    }
+
+    /**
+     * Flush the sink and report whether writing to the destination has
+     * ever failed.
+     * @return true if a write has failed.
+     */
+    public boolean checkError()
+    {
+        flush();
+        return error;
+    }
+
+    /**
+     * @return The number of characters printed but not yet flushed.
+     */
+    public int getPendingLength()
+    {
+        return buffer.length();
+    }
+
+    /**
+     * Return what has been printed but not yet flushed, from a position
+     * on, for example the output of one command.
+     * @param from The position, as returned by getPendingLength earlier.
+     * @return The characters printed since then.
+     */
+    public String getPendingText(int from)
+    {
+        return buffer.substring(from);
+    }
+
+    /**
+     * Pass flushed output on to the destination.
+     * @param text The output; it is only valid during the call.
+     * @throws IOException if the destination cannot be written.
+     */
+    protected abstract void write(CharSequence text) throws IOException;
+}
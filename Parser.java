@@ -1,4 +1,7 @@
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 
 /**
  * This class is part of the "World of Zuul" application. 
@@ -19,43 +22,66 @@ import java.util.Scanner;
 public class Parser 
 {
     private CommandWords commands;  // holds all valid command words
-    private Scanner reader;         // source of command input
+    private CommandTokenizer tokenizer; // splits input lines into commands
+    private Reader reader;          // source of command input
+    private OutputSink out;         // where the prompt is printed
 
     /**
      * Create a parser to read from the terminal window.
      */
     public Parser() 
+    {
+        this(System.in, new ConsoleSink());
+    }
+
+    /**
+     * Create a parser that reads commands from the given input and
+     * prints its prompt to the given output.
+     * @param in The source of command input.
+     * @param out Where the prompt and command list are printed.
+     */
+    public Parser(InputStream in, OutputSink out)
     {
         commands = new CommandWords();
-        reader = new Scanner(System.in);
+        tokenizer = new CommandTokenizer(commands);
+        reader = new InputStreamReader(in);
+        this.out = out;
     }
 
     /**
      * Parse user input and return the next command from the user.
+     * When the input has ended, a quit command is returned. The prompt
+     * is flushed together with any output still waiting in the sink, so
+     * the output of a command and the next prompt take one write.
      * @return The next command from the user.
      */
     public Command getCommand() 
     {
-        String inputLine;   // will hold the full input line
-        String word1 = null;
-        String word2 = null;
+        out.print("> ");     // print prompt
+        out.flush();
 
-        System.out.print("> ");     // print prompt
-
-        inputLine = reader.nextLine();
-
-        // Find up to two words on the line.
-        try (Scanner tokenizer = new Scanner(inputLine)) {
-            if(tokenizer.hasNext()) {
-                word1 = tokenizer.next();      // get first word
-                if(tokenizer.hasNext()) {
-                    word2 = tokenizer.next();      // get second word
-                    // note: we just ignore the rest of the input line.
-                }
-            }
+        Command command;
+        try {
+            command = tokenizer.readCommand(reader);
+        }
+        catch(IOException e) {
+            command = null;
+        }
+        if(command == null) {
+            // the input has ended, so there will be no more commands
+            return new Command(CommandWord.QUIT, null);
         }
+        return command;
+    }
 
-        return new Command(commands.getCommandWord(word1), word2);
+    /**
+     * Parse a line of text as a command, without reading any input.
+     * @param inputLine The line to parse.
+     * @return The command on the line.
+     */
+    public Command parseCommand(CharSequence inputLine)
+    {
+        return tokenizer.parse(inputLine);
     }
 
     /**
@@ -63,6 +89,16 @@ public class Parser
      */
     public void showCommands()
     {
-        commands.showAll();
+        commands.showAll(out);
+    }
+
+    /**
+     * Print out a list of valid command words, with or without the admin
+     * commands.
+     * @param withAdmin true to list the admin commands too.
+     */
+    public void showCommands(boolean withAdmin)
+    {
+        commands.showAll(out, withAdmin);
     }
 }
@@ -1,22 +1,43 @@
 import java.util.ArrayList;
-import java.util.Stack;
 
 /**
  * This class represents a player in the World of Zuul adventure game.
  * 
  * A player can carry items and navigate through the game world.
- * The player maintains an inventory of items and tracks movement history
- * using a Stack for the back command functionality (Exercise 8.26).
- * The Stack ensures proper LIFO (Last In, First Out) behavior for room navigation.
+ * The player maintains an inventory of items, indexed by description so
+ * that finding, adding and removing an item takes constant time, and keeps
+ * a running total of the weight carried, in milligrams so that it is
+ * exact (see Weight). It also tracks movement history
+ * for the back command functionality (Exercise 8.26), with proper LIFO
+ * (Last In, First Out) behavior for room navigation. The history keeps the
+ * ids of the most recent rooms in a RoomHistory of fixed depth, so it does
+ * not grow during long sessions. Rooms that were never added to a world,
+ * such as rooms made by hand on the BlueJ object bench, have no id; they
+ * are kept in a small side table instead, and remembered by their place
+ * in it.
+ *
+ * The inventory and weights are guarded by the player's lock, which a
+ * room also takes while moving an item to or from the player (see
+ * Room.takeItem), so the capacity check and the move happen together.
  * 
  * @author oliviad118
  * @version 2025.11.12
  */
 public class Player
 {
-    private ArrayList<Item> inventory;
-    private Stack<Room> roomHistory;  // Using Stack for proper LIFO behavior
-    private double maxWeight;
+    // How many rooms the history remembers unless told otherwise.
+    public static final int DEFAULT_HISTORY_DEPTH = 100;
+    // A new player can carry this many milligrams.
+    public static final long DEFAULT_MAX_WEIGHT = 5 * Weight.MILLIGRAMS_PER_KILOGRAM;
+
+    private ItemBag inventory;
+    private RoomHistory roomHistory;  // ids of recent rooms, most recent last
+    private World world;              // the world of the rooms in the history
+    private ArrayList<Room> looseRooms;   // remembered rooms in no world, may be null
+    private long maxWeight;           // in milligrams
+    private long totalWeight;         // milligrams of all items in inventory
+    private ItemIndex itemIndex;      // index told about the inventory, may be null
+    private volatile String name;     // how other players see this player
     
     /**
      * Create a new player with an empty inventory and no room history.
@@ -24,9 +45,39 @@ public class Player
      */
     public Player()
     {
-        inventory = new ArrayList<>();
-        roomHistory = new Stack<>();  // Initialize as Stack
-        maxWeight = 5.0; // Initial carrying capacity
+        this(DEFAULT_HISTORY_DEPTH);
+    }
+
+    /**
+     * Create a new player with an empty inventory and no room history,
+     * who remembers up to the given number of rooms for going back.
+     * Sets initial maximum carrying capacity to 5.0 kg.
+     * @param historyDepth The number of rooms the history remembers.
+     */
+    public Player(int historyDepth)
+    {
+        inventory = new ItemBag();
+        roomHistory = new RoomHistory(historyDepth);
+        maxWeight = DEFAULT_MAX_WEIGHT;
+        name = "Someone";
+    }
+
+    /**
+     * @return The player's name, as other players see it.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Give the player a name, by which other players in the same room
+     * are told what the player does.
+     * @param name The player's name.
+     */
+    public void setName(String name)
+    {
+        this.name = name;
     }
     
     /**
@@ -34,10 +85,15 @@ public class Player
      * @param item The item to add
      * @return true if item was added, false if too heavy
      */
-    public boolean addItem(Item item)
+    public synchronized boolean addItem(Item item)
     {
-        if (getTotalWeight() + item.getWeight() <= maxWeight) {
+        // compared this way round so that a huge capacity cannot overflow
+        if (item.getWeight() <= maxWeight - totalWeight) {
             inventory.add(item);
+            totalWeight += item.getWeight();
+            if(itemIndex != null) {
+                itemIndex.add(item.getDescription(), this);
+            }
             return true;
         }
         return false;
@@ -48,16 +104,42 @@ public class Player
      * @param item The item to remove
      * @return true if the item was removed, false if it wasn't in inventory
      */
-    public boolean removeItem(Item item)
+    public synchronized boolean removeItem(Item item)
     {
-        return inventory.remove(item);
+        if(!inventory.remove(item)) {
+            return false;
+        }
+        if(itemIndex != null) {
+            itemIndex.remove(item.getDescription(), this);
+        }
+        totalWeight -= item.getWeight();
+        return true;
     }
     
+    /**
+     * Keep an item index up to date with this player's inventory, for
+     * example the index of the world the player plays in. Items already
+     * carried are moved from the old index to the new one.
+     * @param index The index, or null for none.
+     */
+    public synchronized void setItemIndex(ItemIndex index)
+    {
+        for(Item item : inventory) {
+            if(itemIndex != null) {
+                itemIndex.remove(item.getDescription(), this);
+            }
+            if(index != null) {
+                index.add(item.getDescription(), this);
+            }
+        }
+        itemIndex = index;
+    }
+
     /**
      * Get a copy of the player's inventory.
      * @return An ArrayList of items in the player's inventory
      */
-    public ArrayList<Item> getInventory()
+    public synchronized ArrayList<Item> getInventory()
     {
         return new ArrayList<>(inventory);
     }
@@ -67,119 +149,236 @@ public class Player
      * @param description The description of the item to find
      * @return The item if found, null otherwise
      */
-    public Item getItem(String description)
+    public synchronized Item getItem(String description)
     {
-        for(Item item : inventory) {
-            if(item.getDescription().equals(description)) {
-                return item;
-            }
+        return inventory.get(description);
+    }
+
+    /**
+     * Find an item in the player's inventory by a description that may
+     * be mistyped. If no item has the description, the item whose
+     * description is closest to it is returned, as long as it is close
+     * enough and no other item is as close.
+     * @param description The description as typed.
+     * @return The item meant, or null if there is none.
+     */
+    public synchronized Item findItem(String description)
+    {
+        Item item = inventory.get(description);
+        if(item != null || inventory.isEmpty()) {
+            return item;
         }
-        return null;
+        String closest;
+        if(itemIndex != null) {
+            closest = itemIndex.closestDescription(description, name -> inventory.count(name) > 0);
+        }
+        else {
+            closest = FuzzyMatcher.closest(description, inventory.descriptions());
+        }
+        return closest == null ? null : inventory.get(closest);
     }
     
     /**
      * Get a string representation of the player's inventory.
      * @return A string listing all items in inventory with weight info
      */
-    public String getInventoryString()
+    public synchronized String getInventoryString()
     {
         if(inventory.isEmpty()) {
             return "Your inventory is empty.";
         }
         
-        String inventoryString = "You are carrying: ";
+        StringBuilder inventoryString = new StringBuilder("You are carrying: ");
         for(Item item : inventory) {
-            inventoryString += item.toString() + " ";
+            inventoryString.append(item.toString()).append(' ');
         }
-        inventoryString += "\nTotal weight: " + getTotalWeight() + "kg / " + maxWeight + "kg";
-        inventoryString += "\nRemaining capacity: " + getRemainingCapacity() + "kg";
-        return inventoryString;
+        Weight.append(inventoryString.append("\nTotal weight: "), totalWeight).append("kg / ");
+        Weight.append(inventoryString, maxWeight).append("kg");
+        Weight.append(inventoryString.append("\nRemaining capacity: "), getRemainingCapacity()).append("kg");
+        return inventoryString.toString();
     }
     
     /**
-     * Calculate the total weight of items in the player's inventory.
-     * @return The total weight of all items
+     * Get the total weight of items in the player's inventory.
+     * The total is kept up to date as items are added and removed.
+     * @return The total weight of all items in milligrams
      */
-    public double getTotalWeight()
+    public synchronized long getTotalWeight()
     {
-        double totalWeight = 0.0;
-        for(Item item : inventory) {
-            totalWeight += item.getWeight();
-        }
         return totalWeight;
     }
     
     /**
      * Get the maximum weight the player can carry.
-     * @return The maximum carrying capacity in kg
+     * @return The maximum carrying capacity in milligrams
      */
-    public double getMaxWeight()
+    public synchronized long getMaxWeight()
     {
         return maxWeight;
     }
     
     /**
      * Set the maximum weight the player can carry.
-     * @param newMaxWeight The new maximum carrying capacity in kg
+     * @param newMaxWeight The new maximum carrying capacity in milligrams
      */
-    public void setMaxWeight(double newMaxWeight)
+    public synchronized void setMaxWeight(long newMaxWeight)
     {
         maxWeight = newMaxWeight;
     }
     
     /**
      * Increase the maximum weight the player can carry.
-     * @param increase The amount to increase capacity by in kg
+     * @param increase The amount to increase capacity by in milligrams
      */
-    public void increaseMaxWeight(double increase)
+    public synchronized void increaseMaxWeight(long increase)
     {
         maxWeight += increase;
     }
     
     /**
      * Get the remaining carrying capacity.
-     * @return The remaining weight capacity in kg
+     * @return The remaining weight capacity in milligrams
      */
-    public double getRemainingCapacity()
+    public synchronized long getRemainingCapacity()
     {
-        return maxWeight - getTotalWeight();
+        return maxWeight - totalWeight;
     }
     
     /**
-     * Add a room to the player's movement history using Stack.push().
-     * @param room The room to add to history
+     * Add a room to the player's movement history. If the history is
+     * full, the oldest room is forgotten.
+     * @param room The room to add to history.
      */
     public void addToHistory(Room room)
     {
-        roomHistory.push(room);  // Use Stack's push method
+        World roomWorld = room.getWorld();
+        if(roomWorld == null) {
+            roomHistory.push(looseId(room));
+            return;
+        }
+        if(roomWorld != world) {
+            if(world != null) {
+                // a player moved to another world can't go back to the old one
+                clearHistory();
+            }
+            world = roomWorld;
+        }
+        roomHistory.push(room.getId());
+    }
+
+    /**
+     * Return the id under which a room in no world is remembered: -2 for
+     * the first room of the side table, -3 for the second, and so on, so
+     * that these ids never clash with world ids or RoomHistory's -1.
+     */
+    private int looseId(Room room)
+    {
+        if(looseRooms == null) {
+            looseRooms = new ArrayList<>();
+        }
+        for(int i = 0; i < looseRooms.size(); i++) {
+            if(looseRooms.get(i) == room) {
+                return -2 - i;
+            }
+        }
+        if(looseRooms.size() >= roomHistory.getDepth()) {
+            forgetLooseRooms();
+        }
+        looseRooms.add(room);
+        return -1 - looseRooms.size();
+    }
+
+    /**
+     * Drop the rooms the history no longer holds from the side table,
+     * so that it never holds many more rooms than the history.
+     */
+    private void forgetLooseRooms()
+    {
+        int size = roomHistory.size();
+        Room[] remembered = new Room[size];
+        for(int stepsBack = 1; stepsBack <= size; stepsBack++) {
+            remembered[size - stepsBack] = getHistoryRoom(stepsBack);
+        }
+        roomHistory.clear();
+        looseRooms.clear();
+        for(Room room : remembered) {
+            roomHistory.push(room.getWorld() == null ? looseId(room) : room.getId());
+        }
+    }
+
+    /**
+     * Find the room remembered under an id.
+     */
+    private Room roomOf(int id)
+    {
+        if(id == -1) {
+            return null;
+        }
+        return id < 0 ? looseRooms.get(-2 - id) : world.getRoom(id);
     }
     
     /**
-     * Get the previous room from history and remove it using Stack.pop().
+     * Get the previous room from history and remove it.
      * @return The previous room, or null if no history
      */
     public Room getPreviousRoom()
     {
-        if(roomHistory.isEmpty()) {
-            return null;
-        }
-        return roomHistory.pop();  // Use Stack's pop method
+        return getPreviousRoom(1);
+    }
+
+    /**
+     * Go back a number of steps in the history, removing the rooms
+     * stepped over. This takes the same time however many steps are taken.
+     * @param steps The number of steps to go back.
+     * @return The room that many steps back, or null if the history holds
+     *         fewer rooms than that (in which case it is left unchanged).
+     */
+    public Room getPreviousRoom(int steps)
+    {
+        return roomOf(roomHistory.pop(steps));
+    }
+
+    /**
+     * Look at a room in the history without removing anything.
+     * @param stepsBack 1 for the most recent room, 2 for the one before, ...
+     * @return The room, or null if the history holds fewer rooms than that.
+     */
+    public Room getHistoryRoom(int stepsBack)
+    {
+        return roomOf(roomHistory.get(stepsBack));
+    }
+
+    /**
+     * @return The largest number of rooms the history remembers.
+     */
+    public int getHistoryDepth()
+    {
+        return roomHistory.getDepth();
+    }
+
+    /**
+     * @return The number of rooms in the history.
+     */
+    public int getHistorySize()
+    {
+        return roomHistory.size();
     }
     
     /**
-     * Clear the room history using Stack.clear().
+     * Clear the room history.
      */
     public void clearHistory()
     {
-        roomHistory.clear();  // Clear the stack
+        roomHistory.clear();
+        looseRooms = null;
     }
     
     /**
-     * Check if there is room history using Stack.isEmpty().
+     * Check if there is room history.
      * @return true if there is history, false otherwise
      */
     public boolean hasHistory()
     {
-        return !roomHistory.isEmpty();  // Use Stack's isEmpty method
+        return roomHistory.size() > 0;
     }
 }
\ No newline at end of file
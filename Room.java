@@ -1,7 +1,10 @@
 import java.util.Set;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Class Room - a room in an adventure game.
@@ -11,8 +14,20 @@ import java.util.ArrayList;
  *
  * A "Room" represents one location in the scenery of the game. It is 
  * connected to other rooms via exits. For each existing exit, the room 
- * stores a reference to the neighboring room. Rooms can also contain
- * items that players can interact with.
+ * stores a reference to the neighboring room. Once its world has been
+ * compacted, a room's exits live in the world's ExitGraph instead, and
+ * only exits added after that, or leading to rooms that are not in the
+ * world, are kept in the room itself. Rooms can also contain
+ * items that players can interact with. Items are indexed by description,
+ * so finding, adding or removing one takes constant time however many
+ * items the room holds.
+ *
+ * Rooms may be shared by the players of several sessions. Every room
+ * guards its items with its own lock, so players in different rooms never
+ * wait for each other. Items move between a room and a player with
+ * takeItem and dropItem, which hold the room's lock and then the player's
+ * (always in that order), so an item is never in two places at once and
+ * never lost.
  * 
  * @author Michael Kölling, David J. Barnes, oliviad118
  * @version 2025.11.11
@@ -21,8 +36,24 @@ import java.util.ArrayList;
 public class Room 
 {
     private String description;
-    private HashMap<String, Room> exits;        // stores exits of this room.
-    private ArrayList<Item> items;              // stores items in this room
+    private World world;                        // the world this room is in, may be null
+    private int id;                             // position in the world, -1 if none
+    private HashMap<String, Room> exits;        // exits not in the graph, may be null
+    private ExitGraph exitGraph;                // shared exit graph, may be null
+    private ItemBag items;                      // stores items in this room, by name
+    private Collection<Item> itemView;          // read-only view of items, made when needed, unguarded
+
+    // Rendered descriptions, kept until the exits or items change.
+    // null means the part has to be rendered again.
+    private String exitString;
+    private String itemString;
+    private String longDescription;
+
+    // Rendering reuses one builder per thread rather than concatenating.
+    private static final ThreadLocal<StringBuilder> renderBuffer =
+        ThreadLocal.withInitial(() -> new StringBuilder(256));
+    private static final LongAdder cacheHits = new LongAdder();
+    private static final LongAdder cacheMisses = new LongAdder();
 
     /**
      * Create a room described "description". Initially, it has
@@ -33,18 +64,115 @@ public class Room
     public Room(String description) 
     {
         this.description = description;
-        exits = new HashMap<>();
-        items = new ArrayList<>();
+        id = -1;
+        items = new ItemBag();
     }
 
     /**
-     * Define an exit from this room.
+     * Define an exit from this room. If the room's world has been
+     * compacted, its routing index is dropped, to be built again with
+     * this exit when it is next needed.
      * @param direction The direction of the exit.
      * @param neighbor  The room to which the exit leads.
      */
     public void setExit(String direction, Room neighbor) 
     {
-        exits.put(direction, neighbor);
+        boolean compacted;
+        synchronized(this) {
+            exitString = null;
+            longDescription = null;
+            compacted = exitGraph != null;
+            if(compacted && isInWorldOf(neighbor) &&
+               exitGraph.setTarget(id, Directions.find(direction), neighbor.getId())) {
+                if(exits != null) {
+                    exits.remove(direction);    // the exit may have led outside the world
+                }
+            }
+            else {
+                if(compacted) {
+                    // the graph's slot, if any, must not hide the new exit
+                    exitGraph.setTarget(id, Directions.find(direction), -1);
+                }
+                if(exits == null) {
+                    exits = new HashMap<>(8);
+                }
+                exits.put(direction, neighbor);
+            }
+        }
+        // told without the room's lock held, as compacting takes the
+        // world's lock and then the rooms'
+        if(compacted && world != null) {
+            world.exitsChanged();
+        }
+    }
+
+    /**
+     * Check whether a room is in this room's world, so that an exit to it
+     * can be kept in the world's exit graph.
+     */
+    private boolean isInWorldOf(Room neighbor)
+    {
+        return world != null && neighbor.world == world && neighbor.id >= 0;
+    }
+
+    /**
+     * Keep this room's exits in a world's exit graph. The graph must
+     * already hold all exits of this room to rooms in the world, which
+     * are dropped from the room; exits to rooms outside the world stay in
+     * the room. This is done by the World when it compacts its exits.
+     * @param graph The exit graph of this room's world.
+     */
+    public synchronized void setExitGraph(ExitGraph graph)
+    {
+        exitGraph = graph;
+        if(exits != null) {
+            exits.values().removeIf(this::isInWorldOf);
+            if(exits.isEmpty()) {
+                exits = null;
+            }
+        }
+        exitString = null;
+        longDescription = null;
+    }
+
+    /**
+     * @return The id of this room in its world, or -1 if the room
+     * has not been added to a world.
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    /**
+     * @return The world this room belongs to, or null if the room
+     * has not been added to a world.
+     */
+    public World getWorld()
+    {
+        return world;
+    }
+
+    /**
+     * Record the world this room belongs to and its id there. This is
+     * done by the World when the room is added to it.
+     * @param world The room's world.
+     * @param id The room's id.
+     */
+    public synchronized void setWorld(World world, int id)
+    {
+        if(this.world != null) {
+            for(Item item : items) {
+                this.world.getItemIndex().remove(item.getDescription(), this);
+            }
+        }
+        this.world = world;
+        this.id = id;
+        if(world != null) {
+            for(Item item : items) {
+                world.getItemIndex().add(item.getDescription(), this);
+            }
+        }
     }
 
     /**
@@ -61,11 +189,25 @@ public class Room
      *     You are in the kitchen.
      *     Exits: north west
      *     Items here: key (weight: 0.1kg) map (weight: 0.05kg)
+     * The description is rendered once and kept until the room's exits
+     * or items change.
      * @return A long description of this room
      */
-    public String getLongDescription()
+    public synchronized String getLongDescription()
     {
-        return "You are " + description + ".\n" + getExitString() + getItemString();
+        if(longDescription != null) {
+            cacheHits.increment();
+            return longDescription;
+        }
+        cacheMisses.increment();
+        String exitPart = getExitString();
+        String itemPart = getItemString();
+        StringBuilder buffer = renderBuffer.get();
+        buffer.setLength(0);
+        buffer.append("You are ").append(description).append(".\n")
+              .append(exitPart).append(itemPart);
+        longDescription = buffer.toString();
+        return longDescription;
     }
 
     /**
@@ -73,14 +215,58 @@ public class Room
      * "Exits: north west".
      * @return Details of the room's exits.
      */
-    private String getExitString()
+    private synchronized String getExitString()
     {
-        String returnString = "Exits:";
-        Set<String> keys = exits.keySet();
-        for(String exit : keys) {
-            returnString += " " + exit;
+        if(exitString == null) {
+            StringBuilder buffer = renderBuffer.get();
+            buffer.setLength(0);
+            buffer.append("Exits:");
+            if(exitGraph != null) {
+                for(int exit = exitGraph.getFirstExit(id); exit < exitGraph.getEndExit(id); exit++) {
+                    // an exit moved out of the graph has no target left in it
+                    if(exitGraph.getTargetAt(exit) >= 0) {
+                        buffer.append(' ').append(Directions.name(exitGraph.getDirectionAt(exit)));
+                    }
+                }
+            }
+            if(exits != null) {
+                for(String exit : exits.keySet()) {
+                    buffer.append(' ').append(exit);
+                }
+            }
+            exitString = buffer.toString();
         }
-        return returnString;
+        return exitString;
+    }
+
+    /**
+     * Return the fraction of long descriptions, over all rooms, that were
+     * served from the cache rather than rendered.
+     * @return The cache hit ratio, between 0 and 1.
+     */
+    public static double getCacheHitRatio()
+    {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * @return The number of long descriptions, over all rooms, that were
+     * served from the cache.
+     */
+    public static long getCacheHits()
+    {
+        return cacheHits.sum();
+    }
+
+    /**
+     * @return The number of long descriptions, over all rooms, that had
+     * to be rendered.
+     */
+    public static long getCacheMisses()
+    {
+        return cacheMisses.sum();
     }
 
     /**
@@ -91,16 +277,52 @@ public class Room
      */
     public Room getExit(String direction) 
     {
-        return exits.get(direction);
+        ExitGraph graph = exitGraph;
+        if(graph != null) {
+            int target = graph.getTarget(id, Directions.find(direction));
+            if(target >= 0) {
+                return graph.getRoom(target);
+            }
+        }
+        HashMap<String, Room> moreExits = exits;
+        return moreExits == null ? null : moreExits.get(direction);
+    }
+
+    /**
+     * Return the directions of all exits of this room. The set is a copy,
+     * so it can be used while other threads set exits.
+     * @return An unmodifiable set of exit directions.
+     */
+    public synchronized Set<String> getExitDirections()
+    {
+        if(exitGraph == null) {
+            return exits == null ? Collections.emptySet()
+                                 : Collections.unmodifiableSet(new LinkedHashSet<>(exits.keySet()));
+        }
+        LinkedHashSet<String> directions = new LinkedHashSet<>();
+        for(int exit = exitGraph.getFirstExit(id); exit < exitGraph.getEndExit(id); exit++) {
+            if(exitGraph.getTargetAt(exit) >= 0) {
+                directions.add(Directions.name(exitGraph.getDirectionAt(exit)));
+            }
+        }
+        if(exits != null) {
+            directions.addAll(exits.keySet());
+        }
+        return Collections.unmodifiableSet(directions);
     }
     
     /**
      * Add an item to this room.
      * @param item The item to add to the room
      */
-    public void addItem(Item item)
+    public synchronized void addItem(Item item)
     {
         items.add(item);
+        if(world != null) {
+            world.getItemIndex().add(item.getDescription(), this);
+        }
+        itemString = null;
+        longDescription = null;
     }
     
     /**
@@ -108,48 +330,189 @@ public class Room
      * @param item The item to remove from the room
      * @return true if the item was removed, false if it wasn't in the room
      */
-    public boolean removeItem(Item item)
+    public synchronized boolean removeItem(Item item)
     {
-        return items.remove(item);
+        if(items.remove(item)) {
+            if(world != null) {
+                world.getItemIndex().remove(item.getDescription(), this);
+            }
+            itemString = null;
+            longDescription = null;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Move an item from this room into a player's inventory, if the
+     * player can carry it. Checking the weight and moving the item happen
+     * together, so no other player can take the same item meanwhile.
+     * @param description The description of the item to take.
+     * @param player The player taking the item.
+     * @return TAKEN if the item was moved, NOT_HERE if the room has no
+     *         such item, TOO_HEAVY if the player cannot carry it.
+     */
+    public synchronized Transfer takeItem(String description, Player player)
+    {
+        Item item = items.get(description);
+        if(item == null) {
+            return Transfer.NOT_HERE;
+        }
+        return takeItem(item, player);
+    }
+
+    /**
+     * Move a particular item from this room into a player's inventory, if
+     * it is still here and the player can carry it. A caller that found
+     * the item first can tell its player about the very item the outcome
+     * concerns, even if other players took or dropped items meanwhile.
+     * @param item The item to take.
+     * @param player The player taking the item.
+     * @return TAKEN if the item was moved, NOT_HERE if the item is no
+     *         longer in the room, TOO_HEAVY if the player cannot carry it.
+     */
+    public synchronized Transfer takeItem(Item item, Player player)
+    {
+        if(!items.contains(item)) {
+            return Transfer.NOT_HERE;
+        }
+        synchronized(player) {
+            if(!player.addItem(item)) {
+                return Transfer.TOO_HEAVY;
+            }
+        }
+        removeItem(item);
+        return Transfer.TAKEN;
+    }
+
+    /**
+     * Move an item from a player's inventory into this room.
+     * @param item The item to drop.
+     * @param player The player dropping the item.
+     * @return true if the item was moved, false if the player does not
+     *         have it.
+     */
+    public synchronized boolean dropItem(Item item, Player player)
+    {
+        synchronized(player) {
+            if(!player.removeItem(item)) {
+                return false;
+            }
+        }
+        addItem(item);
+        return true;
+    }
+
+    /**
+     * The outcome of taking an item from a room.
+     */
+    public enum Transfer
+    {
+        TAKEN, NOT_HERE, TOO_HEAVY
+    }
+
+    /**
+     * Remove all items from this room.
+     */
+    public synchronized void clearItems()
+    {
+        if(world != null) {
+            for(Item item : items) {
+                world.getItemIndex().remove(item.getDescription(), this);
+            }
+        }
+        items.clear();
+        itemString = null;
+        longDescription = null;
     }
     
     /**
      * Get a list of all items in this room.
      * @return An ArrayList of items in this room
      */
-    public ArrayList<Item> getItems()
+    public synchronized ArrayList<Item> getItems()
     {
         return new ArrayList<>(items); // return a copy to prevent external modification
     }
-    
+
+    /**
+     * Get a read-only view of the items in this room. Unlike getItems,
+     * nothing is copied, so the view follows later changes to the room.
+     * It is meant for callers that only iterate over the items while no
+     * other thread can change them, such as when a world is built or
+     * written out; the view is not guarded by the room's lock, so while
+     * the world is played, use getItems instead.
+     * @return An unmodifiable view of the items in this room
+     */
+    public Collection<Item> getItemView()
+    {
+        if(itemView == null) {
+            itemView = Collections.unmodifiableCollection(items);
+        }
+        return itemView;
+    }
+
+    /**
+     * @return The number of items in this room.
+     */
+    public synchronized int getItemCount()
+    {
+        return items.size();
+    }
+
     /**
      * Find an item in this room by description.
      * @param description The description of the item to find
      * @return The item if found, null otherwise
      */
-    public Item getItem(String description)
+    public synchronized Item getItem(String description)
     {
-        for(Item item : items) {
-            if(item.getDescription().equals(description)) {
-                return item;
-            }
+        return items.get(description);
+    }
+
+    /**
+     * Find an item in this room by a description that may be mistyped.
+     * If no item has the description, the item whose description is
+     * closest to it is returned, as long as it is close enough and no
+     * other item is as close.
+     * @param description The description as typed.
+     * @return The item meant, or null if there is none.
+     */
+    public synchronized Item findItem(String description)
+    {
+        Item item = items.get(description);
+        if(item != null || items.isEmpty()) {
+            return item;
+        }
+        String closest;
+        if(world != null) {
+            closest = world.getItemIndex().closestDescription(description, name -> items.count(name) > 0);
+        }
+        else {
+            closest = FuzzyMatcher.closest(description, items.descriptions());
         }
-        return null;
+        return closest == null ? null : items.get(closest);
     }
     
     /**
      * Get a string listing all items in this room.
      * @return A string describing items in the room, or empty string if no items
      */
-    public String getItemString()
+    public synchronized String getItemString()
     {
-        if(items.isEmpty()) {
-            return "";
-        }
-        
-        String itemString = "\nItems here: ";
-        for(Item item : items) {
-            itemString += item.toString() + " ";
+        if(itemString == null) {
+            if(items.isEmpty()) {
+                itemString = "";
+            }
+            else {
+                StringBuilder buffer = renderBuffer.get();
+                buffer.setLength(0);
+                buffer.append("\nItems here: ");
+                for(Item item : items) {
+                    buffer.append(item.toString()).append(' ');
+                }
+                itemString = buffer.toString();
+            }
         }
         return itemString;
     }
@@ -0,0 +1,64 @@
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A RoomEvent is something that happened in a room which the players in
+ * it are told about, such as "Player 7 arrives from the north." One event
+ * is published to a RoomEventBus and the same object is put in the
+ * Mailbox of every player in the room.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class RoomEvent
+{
+    private Room room;
+    private String text;
+    private long publishedAt;       // System.nanoTime when published
+
+    /**
+     * Create an event that has just happened.
+     * @param room The room the event happened in.
+     * @param text What the players in the room are told.
+     */
+    public RoomEvent(Room room, String text)
+    {
+        this.room = room;
+        this.text = text;
+        publishedAt = System.nanoTime();
+    }
+
+    /**
+     * @return The room the event happened in.
+     */
+    public Room getRoom()
+    {
+        return room;
+    }
+
+    /**
+     * @return What the players in the room are told.
+     */
+    public String getText()
+    {
+        return text;
+    }
+
+    /**
+     * @return When the event was published, as a System.nanoTime value,
+     *         so that the time taken to deliver it can be measured.
+     */
+    public long getPublishedAt()
+    {
+        return publishedAt;
+    }
+
+    /**
+     * @return What the players in the room are told.
+     */
+    @Override
+    public String toString()
+    {
+        return text;
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * The RoomEventBus tells players what the other players in the same room
+ * do: "Player 7 arrives from the north", "Player 3 picks up the key".
+ * Sessions sharing a world keep a Mailbox each, and subscribe it to the
+ * room they are in, moving the subscription whenever they change rooms.
+ * An event published in a room is then put in the mailboxes of that
+ * room's occupants only, so its cost depends on how crowded the room is
+ * and not on how many players are in the world.
+ *
+ * Publishing never waits: the occupants of a room are read without a
+ * lock, and posting to a mailbox never blocks (see Mailbox). Each session
+ * shows the events in its mailbox on its own thread.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class RoomEventBus
+{
+    private ConcurrentHashMap<Room, Set<Mailbox>> occupants;
+    private LongAdder published;
+    private LongAdder delivered;
+
+    /**
+     * Create a bus with no subscribers.
+     */
+    public RoomEventBus()
+    {
+        occupants = new ConcurrentHashMap<>();
+        published = new LongAdder();
+        delivered = new LongAdder();
+    }
+
+    /**
+     * Subscribe a mailbox to the events of a room.
+     * @param room The room entered.
+     * @param mailbox The mailbox of the session entering it.
+     */
+    public void enter(Room room, Mailbox mailbox)
+    {
+        occupants.compute(room, (r, mailboxes) -> {
+            if(mailboxes == null) {
+                mailboxes = ConcurrentHashMap.newKeySet();
+            }
+            mailboxes.add(mailbox);
+            return mailboxes;
+        });
+    }
+
+    /**
+     * Unsubscribe a mailbox from the events of a room. The rooms of the
+     * world are not kept once nobody is in them.
+     * @param room The room left.
+     * @param mailbox The mailbox of the session leaving it.
+     */
+    public void leave(Room room, Mailbox mailbox)
+    {
+        occupants.computeIfPresent(room, (r, mailboxes) -> {
+            mailboxes.remove(mailbox);
+            return mailboxes.isEmpty() ? null : mailboxes;
+        });
+    }
+
+    /**
+     * Move a mailbox's subscription from one room to another.
+     * @param from The room left.
+     * @param to The room entered.
+     * @param mailbox The mailbox of the session moving.
+     */
+    public void move(Room from, Room to, Mailbox mailbox)
+    {
+        if(from != to) {
+            leave(from, mailbox);
+            enter(to, mailbox);
+        }
+    }
+
+    /**
+     * Tell everyone in a room, except the one who caused it, about an event.
+     * @param room The room the event happened in.
+     * @param sender The mailbox of the session that caused the event,
+     *               which is not sent it; may be null.
+     * @param text What the players in the room are told.
+     * @return The number of mailboxes the event was put in.
+     */
+    public int publish(Room room, Mailbox sender, String text)
+    {
+        Set<Mailbox> mailboxes = occupants.get(room);
+        if(mailboxes == null) {
+            return 0;
+        }
+        published.increment();
+        RoomEvent event = null;
+        int count = 0;
+        for(Mailbox mailbox : mailboxes) {
+            if(mailbox != sender) {
+                if(event == null) {
+                    // only made if somebody else is there to be told
+                    event = new RoomEvent(room, text);
+                }
+                mailbox.post(event);
+                count++;
+            }
+        }
+        delivered.add(count);
+        return count;
+    }
+
+    /**
+     * @param room A room.
+     * @return The number of mailboxes subscribed to the room's events.
+     */
+    public int getOccupantCount(Room room)
+    {
+        Set<Mailbox> mailboxes = occupants.get(room);
+        return mailboxes == null ? 0 : mailboxes.size();
+    }
+
+    /**
+     * @return The number of rooms that somebody is subscribed to.
+     */
+    public int getRoomCount()
+    {
+        return occupants.size();
+    }
+
+    /**
+     * @return The number of events published in rooms with subscribers.
+     */
+    public long getPublishedCount()
+    {
+        return published.sum();
+    }
+
+    /**
+     * @return The number of times an event was put in a mailbox.
+     */
+    public long getDeliveredCount()
+    {
+        return delivered.sum();
+    }
+
+    /**
+     * @return A line such as "12 rooms occupied, 3400 events, 9100 deliveries".
+     */
+    @Override
+    public String toString()
+    {
+        return getRoomCount() + " rooms occupied, " + getPublishedCount() + " events, "
+               + getDeliveredCount() + " deliveries";
+    }
+}
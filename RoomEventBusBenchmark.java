@@ -0,0 +1,222 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * Measures how quickly a RoomEventBus tells the players in a room about an
+ * event. The players, 10000 by default, are shared out between rooms so
+ * that each room holds 1, 10, 100 or all of them. Their mailboxes are read
+ * by a few delivery threads that wait until a mailbox they serve gets an
+ * event, as the event loops of TelnetServer do. One thread publishes
+ * events in random rooms at a steady rate.
+ *
+ * For each crowding the benchmark reports how long publishing an event
+ * took, how long each event took from being published to being taken out
+ * of a mailbox, and how many were thrown away from full mailboxes. For
+ * comparison it also measures telling a room's occupants by walking every
+ * player in the world, as a server would without the bus.
+ *
+ *     java RoomEventBusBenchmark [players] [seconds per run] [deliveries per second]
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class RoomEventBusBenchmark
+{
+    private static final int[] OCCUPANTS = { 1, 10, 100, Integer.MAX_VALUE };
+
+    /**
+     * Run the benchmark.
+     * @param args The optional number of players (default 10000), seconds
+     *             per run (default 3) and deliveries per second aimed at
+     *             (default 200000).
+     * @throws InterruptedException if interrupted while waiting for the
+     *         delivery threads.
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 3;
+        double deliveriesPerSecond = args.length > 2 ? Double.parseDouble(args[2]) : 200_000;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%d players, %d delivery threads, aiming at %.0f deliveries/s%n",
+                          players, threads, deliveriesPerSecond);
+
+        for(int occupants : OCCUPANTS) {
+            occupants = Math.min(occupants, players);
+            run(players, occupants, threads, seconds, deliveriesPerSecond);
+            measureWalkingEveryone(players, occupants);
+        }
+    }
+
+    /**
+     * Publish events at a steady rate for a while with the players crowded
+     * into rooms of the given size, and report the latencies measured.
+     */
+    private static void run(int players, int occupants, int threadCount, double seconds,
+                            double deliveriesPerSecond) throws InterruptedException
+    {
+        RoomEventBus bus = new RoomEventBus();
+        Room[] rooms = new Room[(players + occupants - 1) / occupants];
+        for(int i = 0; i < rooms.length; i++) {
+            rooms[i] = new Room("in room " + i);
+        }
+        Deliverer[] deliverers = new Deliverer[threadCount];
+        for(int i = 0; i < deliverers.length; i++) {
+            deliverers[i] = new Deliverer();
+        }
+        List<Mailbox> mailboxes = new ArrayList<>();
+        for(int i = 0; i < players; i++) {
+            Mailbox mailbox = new Mailbox();
+            deliverers[i % deliverers.length].serve(mailbox);
+            bus.enter(rooms[i / occupants], mailbox);
+            mailboxes.add(mailbox);
+        }
+        for(Deliverer deliverer : deliverers) {
+            deliverer.thread.start();
+        }
+
+        // pace events so that the deliveries, not the events, are steady
+        long interval = (long) (1e9 * occupants / deliveriesPerSecond);
+        LatencyHistogram publishing = new LatencyHistogram();
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        long end = start + (long) (seconds * 1e9);
+        long next = start;
+        long events = 0;
+        while(next < end) {
+            // publish the events now due, then sleep rather than spin so
+            // that the delivery threads are not kept from the processors
+            long now = System.nanoTime();
+            while(next <= now && next < end) {
+                long before = System.nanoTime();
+                bus.publish(rooms[random.nextInt(rooms.length)], null, "Player 1 picks up the key.");
+                publishing.record(System.nanoTime() - before);
+                events++;
+                next += interval;
+            }
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        LatencyHistogram delivery = new LatencyHistogram();
+        for(Deliverer deliverer : deliverers) {
+            deliverer.stop();
+            deliverer.thread.join();
+            delivery.add(deliverer.latencies);
+        }
+        long dropped = 0;
+        for(Mailbox mailbox : mailboxes) {
+            dropped += mailbox.getDroppedCount();
+        }
+        System.out.printf("%d per room: %d events, %.0f deliveries/s, %d dropped%n",
+                          occupants, events, bus.getDeliveredCount() / elapsed, dropped);
+        System.out.println("    publish:  " + publishing);
+        System.out.println("    delivery: " + delivery);
+    }
+
+    /**
+     * Measure telling one room's occupants by walking every player in the
+     * world and checking which room each is in.
+     */
+    private static void measureWalkingEveryone(int players, int occupants)
+    {
+        Room[] rooms = new Room[(players + occupants - 1) / occupants];
+        for(int i = 0; i < rooms.length; i++) {
+            rooms[i] = new Room("in room " + i);
+        }
+        Room[] whereIs = new Room[players];
+        Mailbox[] mailboxes = new Mailbox[players];
+        for(int i = 0; i < players; i++) {
+            whereIs[i] = rooms[i / occupants];
+            mailboxes[i] = new Mailbox();
+        }
+        Random random = new Random(42);
+        Benchmark.measure("    walking all " + players + " players instead", 20_000, operations -> {
+            long sum = 0;
+            for(long n = 0; n < operations; n++) {
+                Room room = rooms[random.nextInt(rooms.length)];
+                RoomEvent event = new RoomEvent(room, "Player 1 picks up the key.");
+                for(int i = 0; i < whereIs.length; i++) {
+                    if(whereIs[i] == room) {
+                        mailboxes[i].post(event);
+                        mailboxes[i].poll();
+                        sum++;
+                    }
+                }
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * A delivery thread: takes the events out of the mailboxes it serves
+     * as they arrive, and records how long each took to get there.
+     */
+    private static class Deliverer implements Runnable
+    {
+        private Thread thread;
+        private ConcurrentLinkedQueue<Mailbox> ready;   // mailboxes sent events
+        private AtomicBoolean parked;
+        private volatile boolean stopping;
+        private LatencyHistogram latencies;
+
+        Deliverer()
+        {
+            thread = Thread.ofPlatform().daemon().unstarted(this);
+            ready = new ConcurrentLinkedQueue<>();
+            parked = new AtomicBoolean();
+            latencies = new LatencyHistogram();
+        }
+
+        /**
+         * Serve a mailbox: be told when it gets an event.
+         */
+        void serve(Mailbox mailbox)
+        {
+            mailbox.setListener(() -> {
+                ready.add(mailbox);
+                if(parked.compareAndSet(true, false)) {
+                    LockSupport.unpark(thread);
+                }
+            });
+        }
+
+        /**
+         * Take out what is left and stop.
+         */
+        void stop()
+        {
+            stopping = true;
+            LockSupport.unpark(thread);
+        }
+
+        public void run()
+        {
+            while(true) {
+                Mailbox mailbox = ready.poll();
+                if(mailbox != null) {
+                    RoomEvent event;
+                    while((event = mailbox.poll()) != null) {
+                        latencies.record(System.nanoTime() - event.getPublishedAt());
+                    }
+                    continue;
+                }
+                if(stopping) {
+                    return;
+                }
+                parked.set(true);
+                if(ready.isEmpty() && !stopping) {
+                    LockSupport.park(this);
+                }
+                parked.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A RoomHistory remembers the most recent rooms a player has been in, as
+ * room ids in a ring buffer of fixed size. When the buffer is full, the
+ * oldest room is forgotten, so the history never takes more memory than
+ * its depth allows however long a session lasts. Going back any number
+ * of steps takes the same time as going back one.
+ *
+ * A history belongs to one player and is not safe for use by several
+ * threads at once.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class RoomHistory
+{
+    private int[] roomIds;
+    private int next;       // position where the next room id goes
+    private int size;       // number of rooms remembered
+
+    /**
+     * Create an empty history.
+     * @param depth The largest number of rooms to remember.
+     */
+    public RoomHistory(int depth)
+    {
+        if(depth < 1) {
+            throw new IllegalArgumentException("History depth must be positive: " + depth);
+        }
+        roomIds = new int[depth];
+    }
+
+    /**
+     * Remember a room as the most recent one, forgetting the oldest room
+     * if the history is full.
+     * @param roomId The id of the room.
+     */
+    public void push(int roomId)
+    {
+        roomIds[next] = roomId;
+        next = (next + 1) % roomIds.length;
+        if(size < roomIds.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Go back a number of steps, forgetting the rooms stepped over.
+     * @param steps The number of steps to go back, at least 1.
+     * @return The id of the room reached, or -1 if fewer than that many
+     *         rooms are remembered (in which case nothing is forgotten).
+     */
+    public int pop(int steps)
+    {
+        if(steps < 1 || steps > size) {
+            return -1;
+        }
+        next = Math.floorMod(next - steps, roomIds.length);
+        size -= steps;
+        return roomIds[next];
+    }
+
+    /**
+     * @return The id of the most recent room, or -1 if the history is empty.
+     */
+    public int peek()
+    {
+        return size == 0 ? -1 : roomIds[Math.floorMod(next - 1, roomIds.length)];
+    }
+
+    /**
+     * Return the id of a remembered room.
+     * @param stepsBack 1 for the most recent room, 2 for the one before, ...
+     * @return The id of the room, or -1 if it is not remembered.
+     */
+    public int get(int stepsBack)
+    {
+        if(stepsBack < 1 || stepsBack > size) {
+            return -1;
+        }
+        return roomIds[Math.floorMod(next - stepsBack, roomIds.length)];
+    }
+
+    /**
+     * @return The number of rooms remembered.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return The largest number of rooms that can be remembered.
+     */
+    public int getDepth()
+    {
+        return roomIds.length;
+    }
+
+    /**
+     * Forget all rooms.
+     */
+    public void clear()
+    {
+        next = 0;
+        size = 0;
+    }
+}
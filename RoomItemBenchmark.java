@@ -0,0 +1,75 @@
+import java.util.ArrayList;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * Measures the throughput of taking and dropping items in rooms holding
+ * from 10 to 100,000 items. Each operation finds an item by description,
+ * removes it and puts it back, the way "take" followed by "drop" does.
+ * The indexed Room is compared against a plain list searched from the
+ * start, which is how rooms stored their items before.
+ *
+ *     java RoomItemBenchmark
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class RoomItemBenchmark
+{
+    private static final int[] ROOM_SIZES = { 10, 100, 1_000, 10_000, 100_000 };
+
+    /**
+     * Run the benchmark.
+     * @param args Not used.
+     */
+    public static void main(String[] args)
+    {
+        for(int size : ROOM_SIZES) {
+            Room room = new Room("in a very cluttered room");
+            ArrayList<Item> list = new ArrayList<>();
+            String[] names = new String[size];
+            for(int i = 0; i < size; i++) {
+                names[i] = "item" + i;
+                room.addItem(new Item(names[i], 0.1));
+                list.add(new Item(names[i], 0.1));
+            }
+            // fewer operations for the list, which is linear in the room size
+            long listOperations = Math.max(100, 2_000_000 / size);
+
+            Benchmark.measure("Room take/drop, " + size + " items", 200_000, operations -> {
+                long sum = 0;
+                for(long i = 0; i < operations; i++) {
+                    Item item = room.getItem(names[(int) (i % size)]);
+                    room.removeItem(item);
+                    room.addItem(item);
+                    sum += item.hashCode();
+                }
+                return sum;
+            });
+            Benchmark.measure("List take/drop, " + size + " items", listOperations, operations -> {
+                long sum = 0;
+                for(long i = 0; i < operations; i++) {
+                    Item item = find(list, names[(int) (i % size)]);
+                    list.remove(item);
+                    list.add(item);
+                    sum += item.hashCode();
+                }
+                return sum;
+            });
+        }
+    }
+
+    /**
+     * Find an item in a list by description, as Room.getItem used to.
+     */
+    private static Item find(ArrayList<Item> list, String description)
+    {
+        for(Item item : list) {
+            if(item.getDescription().equals(description)) {
+                return item;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,455 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A RoutingIndex finds the shortest sequence of exits from one room to
+ * another. It is built once from a world's ExitGraph and answers route
+ * queries from any number of threads at the same time.
+ *
+ * For small worlds the index stores, for every pair of rooms, which exit
+ * to take first, so a route is read off one step at a time. For large
+ * worlds that table would be too big; instead the index stores the
+ * distances from and to a few landmark rooms, and routes are found with
+ * an A* search guided by those distances (the ALT technique), which only
+ * looks at a small part of the map.
+ *
+ * The index reflects the exits at the time it was built; exits added to
+ * rooms later are not used. Exits to rooms outside the world are not in
+ * the graph, and exits the graph marks as taken out of it (target -1)
+ * are skipped, so routes only pass through rooms of the world.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class RoutingIndex
+{
+    // Worlds up to this size get a full table of first exits.
+    private static final int ALL_PAIRS_LIMIT = 4096;
+    private static final int LANDMARKS = 8;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private ExitGraph graph;
+    private int roomCount;
+
+    // small worlds: nextExit[from * roomCount + to] is the exit to take
+    // from "from" (counted from its first exit), or -1 if there is none
+    private byte[] nextExit;
+
+    // large worlds: distances from and to each landmark, and a pool of
+    // search state to reuse between queries
+    private int[][] fromLandmark;
+    private int[][] toLandmark;
+    private ConcurrentLinkedQueue<Search> searches;
+
+    /**
+     * Build a routing index for an exit graph.
+     * @param graph The exits of the world.
+     */
+    public RoutingIndex(ExitGraph graph)
+    {
+        this.graph = graph;
+        roomCount = graph.getRoomCount();
+        if(roomCount <= ALL_PAIRS_LIMIT && maxExits() <= Byte.MAX_VALUE) {
+            buildNextExits();
+        }
+        else {
+            buildLandmarks();
+        }
+    }
+
+    /**
+     * Find the shortest route between two rooms.
+     * @param from The room to start from.
+     * @param to The room to go to.
+     * @return The directions to follow, in order. The list is empty if
+     *         the rooms are the same, and null if there is no route.
+     */
+    public List<String> findRoute(Room from, Room to)
+    {
+        int[] exits = findRoute(from.getId(), to.getId());
+        if(exits == null) {
+            return null;
+        }
+        ArrayList<String> directions = new ArrayList<>(exits.length);
+        for(int exit : exits) {
+            directions.add(Directions.name(graph.getDirectionAt(exit)));
+        }
+        return directions;
+    }
+
+    /**
+     * Find the shortest route between two rooms given by id.
+     * @param from The id of the room to start from.
+     * @param to The id of the room to go to.
+     * @return The positions in the exit graph of the exits to take, in
+     *         order, or null if there is no route.
+     */
+    public int[] findRoute(int from, int to)
+    {
+        if(from < 0 || from >= roomCount || to < 0 || to >= roomCount) {
+            return null;
+        }
+        if(from == to) {
+            return new int[0];
+        }
+        return nextExit != null ? followNextExits(from, to) : search(from, to);
+    }
+
+    /**
+     * @return true if routes are read from a full table, false if they
+     *         are searched for with landmarks.
+     */
+    public boolean isAllPairs()
+    {
+        return nextExit != null;
+    }
+
+    /**
+     * Read a route off the table of first exits.
+     */
+    private int[] followNextExits(int from, int to)
+    {
+        int length = 0;
+        for(int room = from; room != to; length++) {
+            int step = nextExit[room * roomCount + to];
+            if(step < 0) {
+                return null;
+            }
+            room = graph.getTargetAt(graph.getFirstExit(room) + step);
+        }
+        int[] route = new int[length];
+        int room = from;
+        for(int i = 0; i < length; i++) {
+            route[i] = graph.getFirstExit(room) + nextExit[room * roomCount + to];
+            room = graph.getTargetAt(route[i]);
+        }
+        return route;
+    }
+
+    /**
+     * Fill the table of first exits with one backwards breadth-first
+     * search per destination room. The searches run in parallel.
+     */
+    private void buildNextExits()
+    {
+        nextExit = new byte[roomCount * roomCount];
+        Arrays.fill(nextExit, (byte) -1);
+        int[][] reverse = reverseExits();
+        IntStream.range(0, roomCount).parallel().forEach(to -> {
+            boolean[] reached = new boolean[roomCount];
+            int[] queue = new int[roomCount];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = to;
+            reached[to] = true;
+            while(head < tail) {
+                int room = queue[head++];
+                // every exit leading into this room is a first step towards "to"
+                for(int i = reverse[0][room]; i < reverse[0][room + 1]; i++) {
+                    int exit = reverse[1][i];
+                    int source = reverse[2][i];
+                    if(!reached[source]) {
+                        reached[source] = true;
+                        nextExit[source * roomCount + to] = (byte) (exit - graph.getFirstExit(source));
+                        queue[tail++] = source;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Choose landmarks far apart from each other, and record the distances
+     * from and to each of them.
+     */
+    private void buildLandmarks()
+    {
+        int[][] reverse = reverseExits();
+        int count = Math.min(LANDMARKS, roomCount);
+        fromLandmark = new int[count][];
+        toLandmark = new int[count][];
+        int landmark = 0;
+        int[] nearest = new int[roomCount];
+        Arrays.fill(nearest, UNREACHABLE);
+        for(int i = 0; i < count; i++) {
+            fromLandmark[i] = distances(landmark, null);
+            toLandmark[i] = distances(landmark, reverse);
+            // the next landmark is the room farthest from all chosen so far
+            int farthest = -1;
+            for(int room = 0; room < roomCount; room++) {
+                int distance = fromLandmark[i][room];
+                if(distance < nearest[room]) {
+                    nearest[room] = distance;
+                }
+                if(nearest[room] != UNREACHABLE && nearest[room] > 0 &&
+                   (farthest < 0 || nearest[room] > nearest[farthest])) {
+                    farthest = room;
+                }
+            }
+            if(farthest < 0) {
+                // every reachable room is a landmark; start from an unreached one
+                farthest = (landmark + 1) % roomCount;
+                for(int room = 0; room < roomCount; room++) {
+                    if(nearest[room] == UNREACHABLE) {
+                        farthest = room;
+                        break;
+                    }
+                }
+            }
+            landmark = farthest;
+        }
+        searches = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Return the distance of every room from a room, following exits
+     * forwards, or backwards if the reversed exits are given.
+     */
+    private int[] distances(int start, int[][] reverse)
+    {
+        int[] distance = new int[roomCount];
+        Arrays.fill(distance, UNREACHABLE);
+        int[] queue = new int[roomCount];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        distance[start] = 0;
+        while(head < tail) {
+            int room = queue[head++];
+            int first = reverse == null ? graph.getFirstExit(room) : reverse[0][room];
+            int end = reverse == null ? graph.getEndExit(room) : reverse[0][room + 1];
+            for(int i = first; i < end; i++) {
+                int next = reverse == null ? graph.getTargetAt(i) : reverse[2][i];
+                if(next >= 0 && distance[next] == UNREACHABLE) {
+                    distance[next] = distance[room] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Return the exits grouped by the room they lead to: for every room,
+     * the positions reverse[0][room] up to reverse[0][room + 1] of
+     * reverse[1] hold the exits leading into it, and the same positions
+     * of reverse[2] hold the rooms those exits leave from.
+     */
+    private int[][] reverseExits()
+    {
+        int exitCount = graph.getExitCount();
+        int[] firstIn = new int[roomCount + 1];
+        for(int exit = 0; exit < exitCount; exit++) {
+            // an exit taken out of the graph (target -1) leads nowhere in it
+            int target = graph.getTargetAt(exit);
+            if(target >= 0) {
+                firstIn[target + 1]++;
+            }
+        }
+        for(int room = 0; room < roomCount; room++) {
+            firstIn[room + 1] += firstIn[room];
+        }
+        int[] exits = new int[firstIn[roomCount]];
+        int[] sources = new int[firstIn[roomCount]];
+        int[] next = Arrays.copyOf(firstIn, roomCount);
+        for(int room = 0; room < roomCount; room++) {
+            for(int exit = graph.getFirstExit(room); exit < graph.getEndExit(room); exit++) {
+                int target = graph.getTargetAt(exit);
+                if(target >= 0) {
+                    int position = next[target]++;
+                    exits[position] = exit;
+                    sources[position] = room;
+                }
+            }
+        }
+        return new int[][] { firstIn, exits, sources };
+    }
+
+    /**
+     * @return The largest number of exits of any room.
+     */
+    private int maxExits()
+    {
+        int max = 0;
+        for(int room = 0; room < roomCount; room++) {
+            max = Math.max(max, graph.getEndExit(room) - graph.getFirstExit(room));
+        }
+        return max;
+    }
+
+    /**
+     * Find a route with an A* search guided by the landmark distances.
+     * Search state is reused between queries, one state per concurrent
+     * query.
+     */
+    private int[] search(int from, int to)
+    {
+        Search search = searches.poll();
+        if(search == null) {
+            search = new Search(roomCount);
+        }
+        try {
+            return search.run(from, to);
+        }
+        finally {
+            searches.offer(search);
+        }
+    }
+
+    /**
+     * Return a lower bound on the distance between two rooms, from the
+     * triangle inequality over the landmarks.
+     */
+    private int estimate(int room, int to)
+    {
+        int best = 0;
+        for(int i = 0; i < fromLandmark.length; i++) {
+            int[] from = fromLandmark[i];
+            int[] towards = toLandmark[i];
+            if(from[to] != UNREACHABLE && from[room] != UNREACHABLE) {
+                best = Math.max(best, from[to] - from[room]);
+            }
+            if(towards[room] != UNREACHABLE && towards[to] != UNREACHABLE) {
+                best = Math.max(best, towards[room] - towards[to]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The state of one A* search: distances, how each room was reached
+     * and a binary heap of rooms to visit. Arrays are marked with a search
+     * number instead of being cleared between searches.
+     */
+    private class Search
+    {
+        private int[] distance;
+        private int[] reachedBy;     // the exit each room was reached by
+        private int[] previous;      // the room each room was reached from
+        private int[] seen;          // search number when a room was reached
+        private int[] done;          // search number when a room was finished
+        private int[] heapRooms;     // rooms to visit, ordered by heapKeys
+        private long[] heapKeys;     // priority when pushed, see key()
+        private int heapSize;
+        private int searchNumber;
+
+        Search(int roomCount)
+        {
+            distance = new int[roomCount];
+            reachedBy = new int[roomCount];
+            previous = new int[roomCount];
+            seen = new int[roomCount];
+            done = new int[roomCount];
+            heapRooms = new int[64];
+            heapKeys = new long[64];
+        }
+
+        int[] run(int from, int to)
+        {
+            searchNumber++;
+            heapSize = 0;
+            seen[from] = searchNumber;
+            distance[from] = 0;
+            push(from, key(0, estimate(from, to)));
+            while(heapSize > 0) {
+                int room = pop();
+                if(done[room] == searchNumber) {
+                    continue;   // an older entry for a room already finished
+                }
+                done[room] = searchNumber;
+                if(room == to) {
+                    return route(to);
+                }
+                int next = distance[room] + 1;
+                for(int exit = graph.getFirstExit(room); exit < graph.getEndExit(room); exit++) {
+                    int target = graph.getTargetAt(exit);
+                    if(target < 0) {
+                        continue;
+                    }
+                    if(seen[target] != searchNumber || next < distance[target]) {
+                        seen[target] = searchNumber;
+                        distance[target] = next;
+                        reachedBy[target] = exit;
+                        previous[target] = room;
+                        push(target, key(next, estimate(target, to)));
+                    }
+                }
+            }
+            return null;
+        }
+
+        private int[] route(int to)
+        {
+            int[] route = new int[distance[to]];
+            int room = to;
+            for(int i = route.length - 1; i >= 0; i--) {
+                route[i] = reachedBy[room];
+                room = previous[room];
+            }
+            return route;
+        }
+
+        /**
+         * Rooms are visited in order of distance plus estimate. Among rooms
+         * with equal sums, the one farthest from the start goes first,
+         * which keeps the search from spreading out on grid-like maps.
+         */
+        private long key(int roomDistance, int estimate)
+        {
+            return ((long) (roomDistance + estimate) << 32) - roomDistance;
+        }
+
+        private void push(int room, long key)
+        {
+            if(heapSize == heapRooms.length) {
+                heapRooms = Arrays.copyOf(heapRooms, heapSize * 2);
+                heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+            }
+            int i = heapSize++;
+            while(i > 0) {
+                int parent = (i - 1) >>> 1;
+                if(heapKeys[parent] <= key) {
+                    break;
+                }
+                heapRooms[i] = heapRooms[parent];
+                heapKeys[i] = heapKeys[parent];
+                i = parent;
+            }
+            heapRooms[i] = room;
+            heapKeys[i] = key;
+        }
+
+        private int pop()
+        {
+            int top = heapRooms[0];
+            heapSize--;
+            int room = heapRooms[heapSize];
+            long key = heapKeys[heapSize];
+            int i = 0;
+            while(true) {
+                int child = 2 * i + 1;
+                if(child >= heapSize) {
+                    break;
+                }
+                if(child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                    child++;
+                }
+                if(heapKeys[child] >= key) {
+                    break;
+                }
+                heapRooms[i] = heapRooms[child];
+                heapKeys[i] = heapKeys[child];
+                i = child;
+            }
+            heapRooms[i] = room;
+            heapKeys[i] = key;
+            return top;
+        }
+    }
+}
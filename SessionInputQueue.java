@@ -0,0 +1,352 @@
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A SessionInputQueue holds the commands a player has sent but the game
+ * has not yet played. It has room for a fixed number of commands; what
+ * happens when a player sends more than that depends on its policy:
+ *
+ *   BLOCK        the sender waits until there is room, so a fast client
+ *                is held back by TCP itself;
+ *   DROP_OLDEST  the oldest waiting command is thrown away;
+ *   REJECT       the new command is thrown away.
+ *
+ * Commands are also taken out no faster than the session's TokenBucket
+ * allows. Between them, the queue and the bucket stop a client pasting
+ * thousands of commands from keeping the game busy at the cost of other
+ * players. Commands thrown away are counted, both for the player, who is
+ * told about them, and in the server's InputQueueStats.
+ *
+ * One thread may add commands while another takes them.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class SessionInputQueue
+{
+    /**
+     * What to do with a command that arrives when the queue is full.
+     */
+    public enum Policy
+    {
+        BLOCK, DROP_OLDEST, REJECT
+    }
+
+    private ArrayDeque<Command> commands;
+    private int capacity;
+    private Policy policy;
+    private TokenBucket limiter;
+    private InputQueueStats stats;
+    private boolean closed;         // no more commands will be added
+    private int discarded;          // thrown away since the player was last told
+    private boolean woken;          // awaitInput should return although nothing came
+
+    private ReentrantLock lock;
+    private Condition notEmpty;
+    private Condition notFull;
+
+    /**
+     * Create an empty queue.
+     * @param capacity The number of commands the queue holds.
+     * @param policy What to do with commands that do not fit.
+     * @param limiter How fast commands may be taken out.
+     * @param stats The server-wide counts to add to.
+     */
+    public SessionInputQueue(int capacity, Policy policy, TokenBucket limiter, InputQueueStats stats)
+    {
+        this.capacity = Math.max(capacity, 1);
+        this.policy = policy;
+        this.limiter = limiter;
+        this.stats = stats;
+        commands = new ArrayDeque<>(Math.min(this.capacity, 64));
+        lock = new ReentrantLock();
+        notEmpty = lock.newCondition();
+        notFull = lock.newCondition();
+    }
+
+    /**
+     * Add a command, waiting for room under the BLOCK policy.
+     * @param command The command to add.
+     * @return true if the command was queued, false if it was thrown
+     *         away or the queue has been closed.
+     * @throws InterruptedException if interrupted while waiting for room.
+     */
+    public boolean offer(Command command) throws InterruptedException
+    {
+        lock.lock();
+        try {
+            if(policy == Policy.BLOCK) {
+                while(commands.size() >= capacity && !closed) {
+                    notFull.await();
+                }
+            }
+            return enqueue(command);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add a command without waiting. Under the BLOCK policy the command
+     * is queued even if the queue is full; this is for senders that
+     * instead stop reading input while isFull is true, and so may go
+     * over the capacity by what they had already read.
+     * @param command The command to add.
+     * @return true if the command was queued, false if it was thrown
+     *         away or the queue has been closed.
+     */
+    public boolean add(Command command)
+    {
+        lock.lock();
+        try {
+            return enqueue(command);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the next command, waiting for one to arrive and for the rate
+     * limit to allow it.
+     * @return The next command, or null if the queue has been closed and
+     *         all its commands have been taken.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Command take() throws InterruptedException
+    {
+        lock.lock();
+        try {
+            while(commands.isEmpty() && !closed) {
+                notEmpty.await();
+            }
+            if(commands.isEmpty()) {
+                return null;
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+        if(!limiter.tryAcquire()) {
+            stats.recordThrottled();
+            limiter.acquire();
+        }
+        lock.lock();
+        try {
+            // only this thread takes commands, but the queue may have been closed
+            return commands.isEmpty() ? null : dequeue();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until a command is waiting, the queue is closed, or wakeUp is
+     * called. A session waits here rather than in take when it has other
+     * things than commands to show its player.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void awaitInput() throws InterruptedException
+    {
+        lock.lock();
+        try {
+            while(commands.isEmpty() && !closed && !woken) {
+                notEmpty.await();
+            }
+            woken = false;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Make a thread waiting in awaitInput return, or the next call to it
+     * return at once if no thread is waiting.
+     */
+    public void wakeUp()
+    {
+        lock.lock();
+        try {
+            woken = true;
+            notEmpty.signal();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the next command if there is one and the rate limit allows it,
+     * without waiting.
+     * @return The next command, or null if none may be taken now.
+     */
+    public Command poll()
+    {
+        lock.lock();
+        try {
+            if(commands.isEmpty()) {
+                return null;
+            }
+            if(!limiter.tryAcquire()) {
+                stats.recordThrottled();
+                return null;
+            }
+            return dequeue();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return How long until poll may return a waiting command, in
+     *         nanoseconds; 0 if it may now, or if nothing is waiting.
+     */
+    public long getNanosUntilReady()
+    {
+        return isEmpty() ? 0 : limiter.getNanosUntilAvailable();
+    }
+
+    /**
+     * End the session's input: throw away the waiting commands, make
+     * senders waiting for room give up, and make take return null.
+     */
+    public void close()
+    {
+        lock.lock();
+        try {
+            closed = true;
+            stats.recordDepth(-commands.size());
+            commands.clear();
+            notEmpty.signalAll();
+            notFull.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * End the input: take returns null once the commands already queued
+     * have been taken.
+     */
+    public void endOfInput()
+    {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return how many commands have been thrown away since the last call,
+     * so that the player can be told.
+     * @return The number of commands thrown away.
+     */
+    public int takeDiscardedCount()
+    {
+        lock.lock();
+        try {
+            int count = discarded;
+            discarded = 0;
+            return count;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of commands waiting.
+     */
+    public int size()
+    {
+        lock.lock();
+        try {
+            return commands.size();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if the queue has been closed or its input has ended,
+     *         so that no more commands will be added.
+     */
+    public boolean isClosed()
+    {
+        lock.lock();
+        try {
+            return closed;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if no commands are waiting.
+     */
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    /**
+     * @return true if the queue holds as many commands as it has room for.
+     */
+    public boolean isFull()
+    {
+        return size() >= capacity;
+    }
+
+    /**
+     * Queue a command, or throw one away if the queue is full. The lock
+     * must be held.
+     */
+    private boolean enqueue(Command command)
+    {
+        if(closed) {
+            return false;
+        }
+        if(commands.size() >= capacity && policy != Policy.BLOCK) {
+            discarded++;
+            if(policy == Policy.REJECT) {
+                stats.recordRejected();
+                return false;
+            }
+            commands.pollFirst();
+            stats.recordDropped();
+            stats.recordDepth(-1);
+        }
+        commands.addLast(command);
+        stats.recordAccepted();
+        stats.recordDepth(1);
+        notEmpty.signal();
+        return true;
+    }
+
+    /**
+     * Take the first command. The lock must be held and a command waiting.
+     */
+    private Command dequeue()
+    {
+        Command command = commands.pollFirst();
+        stats.recordDepth(-1);
+        notFull.signal();
+        return command;
+    }
+}
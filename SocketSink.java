@@ -0,0 +1,25 @@
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A SocketSink sends a game's output over a network connection, as one
+ * write (and so normally one TCP segment) per command.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class SocketSink extends StreamSink
+{
+    /**
+     * Create a sink writing to a connected socket.
+     * @param socket The connection to the player.
+     * @throws IOException if the socket's output cannot be opened.
+     */
+    public SocketSink(Socket socket) throws IOException
+    {
+        super(socket.getOutputStream());
+    }
+}
@@ -0,0 +1,70 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A StreamSink sends a game's output to an output stream as UTF-8. The
+ * output of a flush is encoded into a byte array that is reused, and
+ * written to the stream with a single write call. Game output is nearly
+ * always plain ASCII, which is copied straight across; anything else is
+ * encoded by the UTF-8 charset.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class StreamSink extends OutputSink
+{
+    private OutputStream stream;
+    private byte[] bytes;       // the encoded output, reused between writes
+
+    /**
+     * Create a sink writing to the given stream.
+     * @param stream Where the output goes.
+     */
+    public StreamSink(OutputStream stream)
+    {
+        this.stream = stream;
+        bytes = new byte[1024];
+    }
+
+    /**
+     * Encode the output and write it to the stream in one call.
+     * @param text The output to write.
+     * @throws IOException if the stream cannot be written.
+     */
+    @Override
+    protected void write(CharSequence text) throws IOException
+    {
+        int length = text.length();
+        if(bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        for(int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if(c >= 0x80) {
+                byte[] encoded = text.toString().getBytes(StandardCharsets.UTF_8);
+                stream.write(encoded, 0, encoded.length);
+                return;
+            }
+            bytes[i] = (byte) c;
+        }
+        stream.write(bytes, 0, length);
+    }
+
+    /**
+     * Flush the sink and close the stream.
+     */
+    public void close()
+    {
+        flush();
+        try {
+            stream.close();
+        }
+        catch(IOException e) {
+            // nothing more can be written anyway
+        }
+    }
+}
@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A load client for TelnetServer and GameServer. It opens many connections
+ * from one thread, most of which only wait at the prompt like players who
+ * have walked away from the keyboard, while a few play as fast as the
+ * server answers: each sends a command, waits for the next prompt, and
+ * sends another. The client reports how long connecting took, how many
+ * commands were answered per second, and the latency percentiles of the
+ * answers.
+ *
+ * Some connections may instead flood the server, pasting thousands of
+ * commands at once without waiting for answers, to show how well the
+ * server keeps them from slowing down the others. Their answers are not
+ * counted.
+ *
+ *     java TelnetLoadClient [host] [port] [connections] [active] [seconds] [flooding]
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class TelnetLoadClient
+{
+    private static final String[] COMMANDS = {
+        "look", "go north", "go south", "take map", "drop map", "inventory", "go east", "go west",
+    };
+    // The number of commands a flooding connection pastes.
+    private static final int FLOOD_COMMANDS = 100_000;
+
+    private String host;
+    private int port;
+    private LatencyHistogram latencies;
+    private long answered;
+
+    /**
+     * Run the load client from the command line.
+     * @param args The optional host (default localhost), port (default
+     *             4000), number of connections (default 10000), number of
+     *             them that play (default 10), seconds to play (default 10)
+     *             and number of connections that flood (default 0).
+     * @throws IOException if the client cannot open its selector.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 4000;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int active = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        double seconds = args.length > 4 ? Double.parseDouble(args[4]) : 10;
+        int flooding = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+        new TelnetLoadClient(host, port).run(connections, active, seconds, flooding);
+    }
+
+    /**
+     * Create a client for a server.
+     * @param host The server's host.
+     * @param port The server's port.
+     */
+    public TelnetLoadClient(String host, int port)
+    {
+        this.host = host;
+        this.port = port;
+        latencies = new LatencyHistogram();
+    }
+
+    /**
+     * Open the connections, let the active ones play for a while, and
+     * print what was measured.
+     * @param connections The number of connections to open.
+     * @param active How many of them play; the rest stay idle.
+     * @param seconds How long to play once all connections are open.
+     * @param flooding How many of the idle connections flood the server.
+     * @throws IOException if the selector cannot be opened.
+     */
+    public void run(int connections, int active, double seconds, int flooding) throws IOException
+    {
+        try (Selector selector = Selector.open()) {
+            ByteBuffer readBuffer = ByteBuffer.allocateDirect(1 << 16);
+            InetSocketAddress address = new InetSocketAddress(host, port);
+
+            long connectStart = System.nanoTime();
+            int failed = 0;
+            for(int i = 0; i < connections; i++) {
+                try {
+                    SocketChannel channel = SocketChannel.open();
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    channel.connect(address);
+                    channel.register(selector, SelectionKey.OP_CONNECT,
+                                     new Connection(i < active, i >= active && i < active + flooding));
+                }
+                catch(IOException e) {
+                    failed++;
+                }
+            }
+            // wait until every connection has been welcomed with a prompt
+            int ready = 0;
+            long deadline = System.nanoTime() + 60_000_000_000L;
+            while(ready + failed < connections && System.nanoTime() < deadline) {
+                selector.select(100);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while(keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if(key.isConnectable()) {
+                            ((SocketChannel) key.channel()).finishConnect();
+                            key.interestOps(SelectionKey.OP_READ);
+                        }
+                        else if(key.isReadable() && connection.read(key, readBuffer) > 0) {
+                            ready++;
+                        }
+                    }
+                    catch(IOException e) {
+                        failed++;
+                        key.cancel();
+                    }
+                }
+            }
+            double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+            System.out.printf("%d connections open in %.2f s, %d failed%n", ready, connectSeconds, failed);
+
+            // the active connections play, and the flooding ones paste
+            ByteBuffer flood = floodOfCommands();
+            for(SelectionKey key : selector.keys()) {
+                Connection connection = (Connection) key.attachment();
+                if(connection.active && key.isValid()) {
+                    connection.send(key);
+                }
+                else if(connection.flooding && key.isValid()) {
+                    connection.flood = flood.duplicate();
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            }
+            long playStart = System.nanoTime();
+            long playEnd = playStart + (long) (seconds * 1e9);
+            while(System.nanoTime() < playEnd) {
+                selector.select(100);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while(keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if(key.isReadable() && connection.read(key, readBuffer) > 0 && connection.active) {
+                            connection.send(key);
+                        }
+                        if(key.isValid() && key.isWritable()) {
+                            connection.paste(key);
+                        }
+                    }
+                    catch(IOException e) {
+                        key.cancel();
+                    }
+                }
+            }
+            double playSeconds = (System.nanoTime() - playStart) / 1e9;
+            System.out.printf("%d commands answered in %.1f s (%.0f commands/s) by %d active connections%n",
+                              answered, playSeconds, answered / playSeconds, active);
+            System.out.println("latency: " + latencies);
+
+            for(SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+        }
+    }
+
+    /**
+     * Return a buffer holding many commands, one per line.
+     */
+    private static ByteBuffer floodOfCommands()
+    {
+        StringBuilder commands = new StringBuilder();
+        for(int i = 0; i < FLOOD_COMMANDS; i++) {
+            commands.append(COMMANDS[i % COMMANDS.length]).append('\n');
+        }
+        return ByteBuffer.wrap(commands.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * One connection to the server.
+     */
+    private class Connection
+    {
+        private boolean active;         // plays, rather than waiting idle
+        private boolean flooding;       // pastes commands without waiting
+        private ByteBuffer flood;       // the commands still to paste
+        private boolean afterGreater;   // the last byte read was '>'
+        private long sentAt;            // when the last command was sent
+        private int commandIndex;
+
+        Connection(boolean active, boolean flooding)
+        {
+            this.active = active;
+            this.flooding = flooding;
+        }
+
+        /**
+         * Read what the server sent and count the prompts in it. Each
+         * prompt after the first answers a command.
+         * @return The number of prompts read.
+         */
+        int read(SelectionKey key, ByteBuffer buffer) throws IOException
+        {
+            buffer.clear();
+            int count = ((SocketChannel) key.channel()).read(buffer);
+            if(count < 0) {
+                throw new IOException("closed by the server");
+            }
+            buffer.flip();
+            int prompts = 0;
+            while(buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if(afterGreater && b == ' ') {
+                    prompts++;
+                }
+                afterGreater = b == '>';
+            }
+            if(prompts > 0 && sentAt != 0 && active) {
+                latencies.record(System.nanoTime() - sentAt);
+                answered++;
+                sentAt = 0;
+            }
+            return prompts;
+        }
+
+        /**
+         * Paste as many of the flood's commands as the server takes now.
+         */
+        void paste(SelectionKey key) throws IOException
+        {
+            ((SocketChannel) key.channel()).write(flood);
+            if(!flood.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        /**
+         * Send the next command.
+         */
+        void send(SelectionKey key) throws IOException
+        {
+            String command = COMMANDS[commandIndex++ % COMMANDS.length] + "\n";
+            sentAt = System.nanoTime();
+            ((SocketChannel) key.channel()).write(ByteBuffer.wrap(command.getBytes(StandardCharsets.US_ASCII)));
+        }
+    }
+}
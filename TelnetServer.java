@@ -0,0 +1,713 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * The telnet server lets many players play in one shared world, like
+ * GameServer, but serves all connections from a few event loop threads
+ * instead of a thread per connection. Each event loop waits on a Selector
+ * for any of its connections to become readable or writable, so an idle
+ * connection costs nothing but its session: a Game with its own Player,
+ * current room and command line.
+ *
+ * Input is read into one direct buffer per event loop and split into lines
+ * in place; the characters of a line are copied into the session's own
+ * line array and parsed there, so reading creates no objects per byte or
+ * per line. All commands that arrive in one read are played before their
+ * output is written, with one gathering write (see ChannelSink). A session
+ * whose player does not read its output stops being read until the output
+ * has drained.
+ *
+ * Commands wait in the session's SessionInputQueue until the session's
+ * rate limit lets them be played (see InputLimits); an event loop wakes
+ * up in time for the next one. Under the BLOCK policy a session is not
+ * read from while its queue is full. The queues are counted in an
+ * InputQueueStats, registered over JMX as
+ * "zuul:type=InputQueueStats,server=telnet-<port>".
+ *
+ * Players are told what the others in their room do through the server's
+ * RoomEventBus. An event sent to an idle session wakes the session's event
+ * loop, which shows it together with any others that arrived meanwhile.
+ *
+ *     java TelnetServer [port] [world file] [event loops] [input limit options] [-transcript directory]
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class TelnetServer
+{
+    // Size of each event loop's read buffer.
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    // A session with more output than this waiting is not read from.
+    private static final int MAX_PENDING_OUTPUT = 1 << 20;
+    private static final String PROMPT = "> ";
+
+    private World world;
+    private ServerSocketChannel serverChannel;
+    private EventLoop[] loops;
+    private LatencyHistogram latencies;     // latencies of all sessions' commands
+    private InputLimits limits;
+    private InputQueueStats inputStats;
+    private TranscriptLogger transcript;    // where sessions are recorded, may be null
+    private RoomEventBus events;            // tells players what others in the room do
+    private AtomicLong playersNamed;        // players are named in the order they arrive
+    private AtomicLong sessionsStarted;
+    private AtomicLong sessionsFinished;
+    private long startTime;
+
+    /**
+     * Start a server from the command line.
+     * @param args The optional port (default 4000), world file ("-" for
+     *             the built-in world) and number of event loops (default
+     *             one per processor), and the options described in
+     *             InputLimits and TranscriptLogger.
+     * @throws IOException if the world cannot be loaded or the port opened.
+     * @throws InterruptedException if the reporting thread is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        InputLimits limits = InputLimits.fromOptions(arguments);
+        TranscriptLogger transcript = TranscriptLogger.fromOptions(arguments);
+        int port = arguments.size() > 0 ? Integer.parseInt(arguments.get(0)) : 4000;
+        World world;
+        if(arguments.size() > 1 && !arguments.get(1).equals("-")) {
+            WorldLoader loader = new WorldLoader();
+            world = loader.load(Paths.get(arguments.get(1)));
+            System.out.println(loader.getLoadReport());
+        }
+        else {
+            world = new Game().getWorld();
+        }
+        int loopCount = arguments.size() > 2 ? Integer.parseInt(arguments.get(2))
+                                             : Runtime.getRuntime().availableProcessors();
+        TelnetServer server = new TelnetServer(world, port, loopCount, limits);
+        server.setTranscript(transcript);
+        server.start();
+        System.out.println("Serving on port " + server.getPort() + " with " + loopCount
+                           + " event loops, input limits: " + limits);
+        while(true) {
+            Thread.sleep(10_000);
+            System.out.println(server.getReport());
+        }
+    }
+
+    /**
+     * Create a server for the given world, listening on the given port,
+     * with the default input limits. Call start to start serving players.
+     * @param world The world shared by all sessions.
+     * @param port The TCP port to listen on, or 0 for any free port.
+     * @param loopCount The number of event loop threads.
+     * @throws IOException if the port cannot be opened.
+     */
+    public TelnetServer(World world, int port, int loopCount) throws IOException
+    {
+        this(world, port, loopCount, new InputLimits());
+    }
+
+    /**
+     * Create a server for the given world, listening on the given port.
+     * Call start to start serving players.
+     * @param world The world shared by all sessions.
+     * @param port The TCP port to listen on, or 0 for any free port.
+     * @param loopCount The number of event loop threads.
+     * @param limits How much input each session may send.
+     * @throws IOException if the port cannot be opened.
+     */
+    public TelnetServer(World world, int port, int loopCount, InputLimits limits) throws IOException
+    {
+        this.world = world;
+        this.limits = limits;
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 4096);
+        serverChannel.configureBlocking(false);
+        loops = new EventLoop[Math.max(1, loopCount)];
+        for(int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop(i);
+        }
+        latencies = new LatencyHistogram();
+        inputStats = new InputQueueStats();
+        inputStats.register("telnet-" + serverChannel.socket().getLocalPort());
+        events = new RoomEventBus();
+        playersNamed = new AtomicLong();
+        sessionsStarted = new AtomicLong();
+        sessionsFinished = new AtomicLong();
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Start the event loop threads. The first loop also accepts new
+     * connections, and hands them to the loops in turn.
+     * @throws IOException if the server cannot be registered for accepting.
+     */
+    public void start() throws IOException
+    {
+        serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        for(EventLoop loop : loops) {
+            loop.thread.start();
+        }
+    }
+
+    /**
+     * Stop accepting players and close every connection.
+     * @throws IOException if the server socket cannot be closed.
+     */
+    public void close() throws IOException
+    {
+        serverChannel.close();
+        for(EventLoop loop : loops) {
+            loop.thread.interrupt();
+            loop.selector.wakeup();
+        }
+    }
+
+    /**
+     * @return The port the server is listening on.
+     */
+    public int getPort()
+    {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return The histogram of command latencies of all sessions.
+     */
+    public LatencyHistogram getLatencies()
+    {
+        return latencies;
+    }
+
+    /**
+     * Record the commands and output of sessions started from now on.
+     * @param transcript The transcript to record in, or null for none.
+     */
+    public void setTranscript(TranscriptLogger transcript)
+    {
+        this.transcript = transcript;
+    }
+
+    /**
+     * @return The bus telling the players of this server's sessions what
+     *         the others in their room do.
+     */
+    public RoomEventBus getEventBus()
+    {
+        return events;
+    }
+
+    /**
+     * @return The counts of all sessions' input queues.
+     */
+    public InputQueueStats getInputStats()
+    {
+        return inputStats;
+    }
+
+    /**
+     * @return The number of sessions connected now.
+     */
+    public long getActiveSessions()
+    {
+        return sessionsStarted.get() - sessionsFinished.get();
+    }
+
+    /**
+     * Return a report of the server's activity, in the form:
+     *     sessions: 120 active, 3400 finished, 35.2/s; commands: count=... p99=...; input: queued=...; events: ...
+     * @return A description of the server's activity.
+     */
+    public String getReport()
+    {
+        long finished = sessionsFinished.get();
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        return String.format("sessions: %d active, %d finished, %.1f/s; commands: %s; input: %s; events: %s",
+                             sessionsStarted.get() - finished, finished,
+                             sessionsStarted.get() / Math.max(seconds, 1e-9), latencies, inputStats, events);
+    }
+
+    /**
+     * One event loop: a thread, its selector, and the sessions it serves.
+     */
+    private class EventLoop implements Runnable
+    {
+        private Selector selector;
+        private Thread thread;
+        private ByteBuffer readBuffer;
+        private CommandTokenizer tokenizer;
+        private ConcurrentLinkedQueue<SocketChannel> arrivals;  // accepted, not yet registered
+        private int nextLoop;                                   // where the next arrival goes
+        private List<Session> throttled;        // sessions with commands held back by their rate limit
+        private List<Session> due;              // spare list for taking turns at throttled sessions
+        private ConcurrentLinkedQueue<Session> mail;    // sessions sent events while idle
+        private AtomicBoolean mailWaiting;              // the selector has been woken for mail
+
+        EventLoop(int number) throws IOException
+        {
+            selector = Selector.open();
+            thread = Thread.ofPlatform().name("telnet-loop-" + number).daemon().unstarted(this);
+            readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+            tokenizer = new CommandTokenizer(new CommandWords());
+            arrivals = new ConcurrentLinkedQueue<>();
+            throttled = new ArrayList<>();
+            due = new ArrayList<>();
+            mail = new ConcurrentLinkedQueue<>();
+            mailWaiting = new AtomicBoolean();
+        }
+
+        public void run()
+        {
+            while(!thread.isInterrupted()) {
+                try {
+                    long wait = getNanosUntilDue();
+                    if(wait < 0) {
+                        selector.select();
+                    }
+                    else {
+                        selector.select(Math.max(1, (wait + 999_999) / 1_000_000));
+                    }
+                    registerArrivals();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while(keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handle(key);
+                    }
+                    playThrottled();
+                    deliverMail();
+                }
+                catch(IOException e) {
+                    System.err.println("Event loop failed: " + e.getMessage());
+                }
+            }
+            for(SelectionKey key : selector.keys()) {
+                if(key.attachment() instanceof Session) {
+                    ((Session) key.attachment()).close();
+                }
+            }
+        }
+
+        /**
+         * Return how long until a throttled session may play again, or
+         * -1 if no session is throttled.
+         */
+        private long getNanosUntilDue()
+        {
+            long wait = -1;
+            for(Session session : throttled) {
+                long sessionWait = session.queue.getNanosUntilReady();
+                if(wait < 0 || sessionWait < wait) {
+                    wait = sessionWait;
+                }
+            }
+            return wait;
+        }
+
+        /**
+         * Let every throttled session play what its rate limit now allows.
+         */
+        private void playThrottled()
+        {
+            if(throttled.isEmpty()) {
+                return;
+            }
+            List<Session> turn = throttled;
+            throttled = due;
+            due = turn;
+            for(Session session : turn) {
+                session.waiting = false;
+                if(session.closed) {
+                    continue;
+                }
+                try {
+                    session.playQueued();
+                }
+                catch(IOException e) {
+                    session.close();
+                }
+            }
+            turn.clear();
+        }
+
+        /**
+         * Show the sessions sent events while idle what they were sent.
+         */
+        private void deliverMail()
+        {
+            mailWaiting.set(false);
+            Session session;
+            while((session = mail.poll()) != null) {
+                if(session.closed) {
+                    continue;
+                }
+                try {
+                    session.deliverEvents();
+                }
+                catch(IOException e) {
+                    session.close();
+                }
+            }
+        }
+
+        /**
+         * Tell this loop that a session has been sent an event. Called by
+         * the thread publishing it, which may be another loop's.
+         */
+        void mailArrived(Session session)
+        {
+            mail.add(session);
+            // one wakeup is enough for all the mail until the loop takes it
+            if(!mailWaiting.getAndSet(true)) {
+                selector.wakeup();
+            }
+        }
+
+        /**
+         * Hand a newly accepted connection to this loop.
+         */
+        void arrive(SocketChannel channel)
+        {
+            arrivals.add(channel);
+            selector.wakeup();
+        }
+
+        /**
+         * Start a session for every connection handed to this loop.
+         */
+        private void registerArrivals()
+        {
+            SocketChannel channel;
+            while((channel = arrivals.poll()) != null) {
+                try {
+                    channel.configureBlocking(false);
+                    channel.socket().setTcpNoDelay(true);
+                    Session session = new Session(channel);
+                    session.key = channel.register(selector, SelectionKey.OP_READ, session);
+                    session.begin();
+                }
+                catch(IOException e) {
+                    closeQuietly(channel);
+                    sessionsFinished.incrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * Deal with a connection that is ready.
+         */
+        private void handle(SelectionKey key)
+        {
+            if(!key.isValid()) {
+                return;
+            }
+            if(key.isAcceptable()) {
+                accept();
+                return;
+            }
+            Session session = (Session) key.attachment();
+            try {
+                if(key.isReadable()) {
+                    session.read();
+                }
+                if(key.isValid() && key.isWritable()) {
+                    session.write();
+                }
+            }
+            catch(IOException e) {
+                session.close();
+            }
+        }
+
+        /**
+         * Accept every waiting connection, sharing them between the loops.
+         */
+        private void accept()
+        {
+            try {
+                SocketChannel channel;
+                while((channel = serverChannel.accept()) != null) {
+                    sessionsStarted.incrementAndGet();
+                    EventLoop loop = loops[nextLoop];
+                    nextLoop = (nextLoop + 1) % loops.length;
+                    if(loop == this) {
+                        arrivals.add(channel);
+                    }
+                    else {
+                        loop.arrive(channel);
+                    }
+                }
+                registerArrivals();
+            }
+            catch(IOException e) {
+                if(serverChannel.isOpen()) {
+                    System.err.println("Could not accept a connection: " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * One player's connection and game.
+         */
+        private class Session
+        {
+            private SocketChannel channel;
+            private SelectionKey key;
+            private ChannelSink out;
+            private SessionInputQueue queue;
+            private Game game;
+            private char[] line;        // the line being received
+            private int lineLength;
+            private boolean lineCut;    // the line received is too long, and cut short
+            private ByteBuffer backlog; // input read but not yet split, while the queue is full
+            private boolean finished;   // the player has quit; close once written
+            private boolean closed;
+            private boolean waiting;    // listed among the loop's throttled sessions
+
+            Session(SocketChannel channel)
+            {
+                this.channel = channel;
+                out = new ChannelSink();
+                queue = limits.newQueue(inputStats);
+                game = new Game(world, InputStream.nullInputStream(), out);
+                game.setLatencyHistogram(latencies);
+                game.setTranscript(transcript);
+                game.getPlayer().setName("Player " + playersNamed.incrementAndGet());
+                game.setEventBus(events);
+                game.getMailbox().setListener(() -> mailArrived(this));
+                line = new char[InputLimits.MAX_LINE_LENGTH];
+            }
+
+            /**
+             * Welcome the player.
+             */
+            void begin() throws IOException
+            {
+                game.start();
+                out.print(PROMPT);
+                out.flush();
+                write();
+            }
+
+            /**
+             * Read what has arrived, queue every complete line, play what
+             * the rate limit allows, and write the output of all of it
+             * together.
+             */
+            void read() throws IOException
+            {
+                readBuffer.clear();
+                int count = channel.read(readBuffer);
+                if(count < 0) {
+                    close();
+                    return;
+                }
+                readBuffer.flip();
+                split(readBuffer);
+                if(readBuffer.hasRemaining()) {
+                    // the queue is full; keep the rest until there is room
+                    backlog = ByteBuffer.allocate(readBuffer.remaining());
+                    backlog.put(readBuffer).flip();
+                }
+                playQueued();
+            }
+
+            /**
+             * Split input into lines and queue them, stopping early if
+             * the queue fills up under the BLOCK policy.
+             */
+            private void split(ByteBuffer input)
+            {
+                while(input.hasRemaining() && !isHeld()) {
+                    byte b = input.get();
+                    if(b == '\n') {
+                        receive();
+                    }
+                    else if(b >= ' ' || b == '\t') {
+                        // telnet sends ASCII; control and negotiation bytes are dropped
+                        if(lineLength < line.length) {
+                            line[lineLength++] = (char) b;
+                        }
+                        else {
+                            lineCut = true;
+                        }
+                    }
+                }
+            }
+
+            /**
+             * @return true if no more input may be queued until commands
+             *         have been played.
+             */
+            private boolean isHeld()
+            {
+                return limits.getPolicy() == SessionInputQueue.Policy.BLOCK && queue.isFull();
+            }
+
+            /**
+             * Queue the line received.
+             */
+            private void receive()
+            {
+                if(lineCut) {
+                    inputStats.recordRejected();
+                    lineCut = false;
+                }
+                if(!isBlank()) {
+                    queue.add(tokenizer.parse(line, 0, lineLength));
+                }
+                else if(queue.isEmpty() && !finished) {
+                    // an empty line only asks for the prompt again
+                    out.print(PROMPT);
+                    out.flush();
+                }
+                lineLength = 0;
+            }
+
+            /**
+             * Play the queued commands the rate limit allows, and write
+             * their output. If commands are left waiting, come back when
+             * the next may be played.
+             */
+            void playQueued() throws IOException
+            {
+                while(!finished) {
+                    if(backlog != null) {
+                        split(backlog);
+                        if(!backlog.hasRemaining()) {
+                            backlog = null;
+                        }
+                    }
+                    Command command = queue.poll();
+                    if(command == null) {
+                        break;
+                    }
+                    play(command);
+                }
+                if(!finished && !queue.isEmpty() && !waiting) {
+                    waiting = true;
+                    throttled.add(this);
+                }
+                write();
+            }
+
+            /**
+             * Play one command.
+             */
+            private void play(Command command)
+            {
+                int discarded = queue.takeDiscardedCount();
+                if(discarded > 0) {
+                    out.println("(" + discarded + " of your commands were ignored: you are typing faster than the game can follow.)");
+                }
+                finished = game.execute(command);
+                if(finished) {
+                    game.finish();
+                    queue.close();
+                }
+                else {
+                    out.print(PROMPT);
+                }
+                out.flush();
+            }
+
+            /**
+             * Show the events sent to the session since its last command,
+             * on a line of their own, and prompt again.
+             */
+            void deliverEvents() throws IOException
+            {
+                if(finished || game.getMailbox().isEmpty()
+                   || out.getPendingBytes() >= MAX_PENDING_OUTPUT) {
+                    // shown before the output of the next command instead
+                    return;
+                }
+                out.println();
+                game.deliverEvents();
+                out.print(PROMPT);
+                out.flush();
+                write();
+            }
+
+            /**
+             * @return true if the line received holds only spaces.
+             */
+            private boolean isBlank()
+            {
+                for(int i = 0; i < lineLength; i++) {
+                    if(line[i] != ' ' && line[i] != '\t') {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            /**
+             * Write waiting output. Wait for the channel to become
+             * writable if it does not take it all, and stop reading while
+             * too much output is waiting or, under the BLOCK policy, while
+             * the input queue is full.
+             */
+            void write() throws IOException
+            {
+                boolean done = out.writeTo(channel);
+                if(done && finished) {
+                    close();
+                    return;
+                }
+                int interest = done ? 0 : SelectionKey.OP_WRITE;
+                if(!finished && backlog == null && !isHeld() && out.getPendingBytes() < MAX_PENDING_OUTPUT) {
+                    interest |= SelectionKey.OP_READ;
+                }
+                if(key.interestOps() != interest) {
+                    key.interestOps(interest);
+                }
+            }
+
+            /**
+             * End the session.
+             */
+            void close()
+            {
+                if(closed) {
+                    return;
+                }
+                closed = true;
+                queue.close();
+                if(!finished) {
+                    game.finish();
+                }
+                key.cancel();
+                closeQuietly(channel);
+                sessionsFinished.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Close a channel, ignoring failure.
+     */
+    private static void closeQuietly(SocketChannel channel)
+    {
+        try {
+            channel.close();
+        }
+        catch(IOException e) {
+            // the connection is gone anyway
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A TokenBucket limits how often something may happen: the bucket fills
+ * with tokens at a steady rate up to a largest burst, and every event
+ * takes one token. A player typing normally never runs out; a script
+ * pasting thousands of commands is slowed to the fill rate once it has
+ * used up its burst.
+ *
+ * A bucket may be used by several threads.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class TokenBucket
+{
+    private double ratePerNano;     // tokens added per nanosecond; 0 for no limit
+    private double burst;           // the most tokens the bucket holds
+    private double tokens;
+    private long lastFill;          // System.nanoTime of the last fill
+
+    /**
+     * Create a full bucket.
+     * @param perSecond The number of tokens added per second, or 0 or
+     *                  less for a bucket that never runs out.
+     * @param burst The most tokens the bucket holds; at least 1.
+     */
+    public TokenBucket(double perSecond, int burst)
+    {
+        ratePerNano = Math.max(perSecond, 0) / 1e9;
+        this.burst = Math.max(burst, 1);
+        tokens = this.burst;
+        lastFill = System.nanoTime();
+    }
+
+    /**
+     * Take a token if there is one.
+     * @return true if a token was taken, false if the bucket is empty.
+     */
+    public synchronized boolean tryAcquire()
+    {
+        if(ratePerNano == 0) {
+            return true;
+        }
+        fill();
+        if(tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Take a token, waiting for one if the bucket is empty.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException
+    {
+        while(!tryAcquire()) {
+            long wait = getNanosUntilAvailable();
+            Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+        }
+    }
+
+    /**
+     * @return How long until a token will be available, in nanoseconds;
+     *         0 if one is available now.
+     */
+    public synchronized long getNanosUntilAvailable()
+    {
+        if(ratePerNano == 0) {
+            return 0;
+        }
+        fill();
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / ratePerNano);
+    }
+
+    /**
+     * Add the tokens earned since the last fill.
+     */
+    private void fill()
+    {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastFill) * ratePerNano);
+        lastFill = now;
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.Scanner;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * Compares the time and allocation of parsing command lines with the
+ * CommandTokenizer against the Scanner-per-line approach the Parser used
+ * before, on a transcript of typical commands.
+ *
+ *     java TokenizerBenchmark
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class TokenizerBenchmark
+{
+    private static final String[] TRANSCRIPT = {
+        "look", "go north", "take cookie", "eat cookie", "go south",
+        "go east", "take notebook", "  take   pen  ", "drop notebook",
+        "inventory", "items", "back", "back 2", "go down", "xyzzy plugh",
+        "help", "go west now please", "take map", "drop map", ""
+    };
+
+    /**
+     * Run the benchmark.
+     * @param args Not used.
+     */
+    public static void main(String[] args)
+    {
+        CommandWords commands = new CommandWords();
+        CommandTokenizer tokenizer = new CommandTokenizer(commands);
+        StringBuilder text = new StringBuilder();
+        for(String line : TRANSCRIPT) {
+            text.append(line).append('\n');
+        }
+        char[] chars = text.toString().toCharArray();
+        long[] checksum = new long[1];
+
+        Benchmark.measure("Scanner per line", 200_000, operations -> {
+            long sum = 0;
+            for(long i = 0; i < operations; i++) {
+                sum += scannerParse(commands, TRANSCRIPT[(int) (i % TRANSCRIPT.length)]).hashCode();
+            }
+            return sum;
+        });
+        Benchmark.measure("CommandTokenizer.parse", 200_000, operations -> {
+            long sum = 0;
+            for(long i = 0; i < operations; i++) {
+                sum += tokenizer.parse(TRANSCRIPT[(int) (i % TRANSCRIPT.length)]).hashCode();
+            }
+            return sum;
+        });
+        Benchmark.measure("CommandTokenizer.parseAll (transcript)", 200_000 / TRANSCRIPT.length, operations -> {
+            checksum[0] = 0;
+            for(long i = 0; i < operations; i++) {
+                tokenizer.parseAll(chars, 0, chars.length, command -> checksum[0] += command.hashCode());
+            }
+            return checksum[0];
+        });
+        System.out.println("(one parseAll operation parses the whole " + TRANSCRIPT.length + "-line transcript)");
+    }
+
+    /**
+     * Parse a line the way the Parser did before the CommandTokenizer.
+     */
+    private static Command scannerParse(CommandWords commands, String inputLine)
+    {
+        String word1 = null;
+        String word2 = null;
+        try (Scanner tokenizer = new Scanner(inputLine)) {
+            if(tokenizer.hasNext()) {
+                word1 = tokenizer.next();
+                if(tokenizer.hasNext()) {
+                    word2 = tokenizer.next();
+                }
+            }
+        }
+        return new Command(commands.getCommandWord(word1), word2);
+    }
+}
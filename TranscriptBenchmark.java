@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * Measures what recording a transcript costs a command. The same walk
+ * through the built-in world is played with Game.execute without a
+ * transcript, and then with a TranscriptLogger under each overflow policy.
+ * For each run the benchmark reports the time per command, the processor
+ * time the playing thread itself spent per command (on a machine with few
+ * cores the writer thread's work also shows in the elapsed time), the
+ * events written or dropped, how long the writer took to catch up once
+ * play stopped, and the size of the compressed transcript.
+ *
+ *     java TranscriptBenchmark [directory] [commands per round]
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class TranscriptBenchmark
+{
+    private static final String[] WALK = {
+        "look", "take map", "go north", "take cookie", "go south", "drop map",
+        "inventory", "go east", "go west", "eat cookie", "xyzzy", "back",
+    };
+
+    /**
+     * Run the benchmark.
+     * @param args The optional directory for the transcripts (default
+     *             "transcript-benchmark") and commands per round (default 200000).
+     * @throws IOException if a transcript cannot be written.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "transcript-benchmark");
+        long commands = args.length > 1 ? Long.parseLong(args[1]) : 200_000;
+
+        run("Game.execute", null, commands);
+        for(TranscriptLogger.Overflow overflow : TranscriptLogger.Overflow.values()) {
+            Path runDirectory = directory.resolve(overflow.toString().toLowerCase());
+            deleteTranscripts(runDirectory);
+            TranscriptLogger transcript = new TranscriptLogger(runDirectory, TranscriptLogger.DEFAULT_FILE_BYTES,
+                                                               TranscriptLogger.DEFAULT_FILES_KEPT,
+                                                               TranscriptLogger.DEFAULT_CAPACITY, overflow);
+            run("Game.execute with transcript [" + overflow + "]", transcript, commands);
+
+            long start = System.nanoTime();
+            transcript.close();
+            long drainNanos = System.nanoTime() - start;
+            System.out.printf("    %d events, %d dropped, %.1f ms to catch up, %d bytes compressed%n",
+                              transcript.getLoggedCount(), transcript.getDroppedCount(),
+                              drainNanos / 1e6, transcriptBytes(runDirectory));
+        }
+    }
+
+    /**
+     * Measure playing the walk, recording in a transcript if one is given.
+     */
+    private static void run(String name, TranscriptLogger transcript, long commands)
+    {
+        OutputSink out = OutputSink.discard();
+        Game game = new Game(new Game().getWorld(), java.io.InputStream.nullInputStream(), out);
+        game.setTranscript(transcript);
+        Parser parser = new Parser();
+        Command[] walk = new Command[WALK.length];
+        for(int i = 0; i < WALK.length; i++) {
+            walk[i] = parser.parseCommand(WALK[i]);
+        }
+
+        Benchmark.Body body = operations -> {
+            long sum = 0;
+            for(long i = 0; i < operations; i++) {
+                game.execute(walk[(int) (i % walk.length)]);
+                sum += out.getPendingLength();
+                out.flush();
+            }
+            return sum;
+        };
+        Benchmark.measure(name, commands, body);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        body.run(commands);
+        long cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+        System.out.printf("    %.1f ns/op of processor time on the playing thread%n",
+                          (double) cpuNanos / commands);
+    }
+
+    /**
+     * Return the total size of the transcripts in a directory.
+     */
+    private static long transcriptBytes(Path directory) throws IOException
+    {
+        long bytes = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "transcript-*")) {
+            for(Path file : files) {
+                bytes += Files.size(file);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Delete the transcripts left in a directory by an earlier run.
+     */
+    private static void deleteTranscripts(Path directory) throws IOException
+    {
+        if(!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "transcript-*")) {
+            for(Path file : files) {
+                Files.delete(file);
+            }
+        }
+    }
+}
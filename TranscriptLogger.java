@@ -0,0 +1,462 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A TranscriptLogger records every command of every session and the output
+ * it produced, for audits and support. Games hand their events to the
+ * logger on a lock-free queue and carry on; a background thread takes the
+ * events off in batches, formats them and writes them to compressed log
+ * files, so the cost to a command is one queue insertion.
+ *
+ * Each line of a transcript holds the time, the session number, a mark and
+ * a text:
+ *
+ *     2026-10-17T09:30:12.345Z 7 > go north
+ *     2026-10-17T09:30:12.345Z 7 < You are in a lecture theater.
+ *
+ * where ">" marks a command, "<" a line of its output and "*" a note such
+ * as the start or end of a session. Files are named transcript-000001.log.gz
+ * and so on; when a file has grown to its size limit the next is started,
+ * and only the newest files are kept. Output is flushed at least once a
+ * second, so a transcript is readable up to the last second even if the
+ * server dies.
+ *
+ * The queue holds a limited number of events. What happens when it is
+ * full depends on the overflow policy: DROP throws the new event away, and
+ * the number lost is noted in the transcript; BLOCK makes the game wait
+ * until there is room, so nothing is lost but a slow disk slows play.
+ *
+ * Game, GameServer and TelnetServer record transcripts when given the
+ * option "-transcript directory".
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class TranscriptLogger
+{
+    /**
+     * What to do with an event that arrives when the queue is full.
+     */
+    public enum Overflow
+    {
+        DROP, BLOCK
+    }
+
+    // The defaults: 64 MB per file before compression, ten files kept,
+    // and room for 64k events waiting.
+    public static final long DEFAULT_FILE_BYTES = 64L << 20;
+    public static final int DEFAULT_FILES_KEPT = 10;
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // The writer waits this long when there is nothing to write.
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    // Written output is flushed to the file at least this often.
+    private static final long FLUSH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private Path directory;
+    private long maxFileBytes;
+    private int filesKept;
+    private int capacity;
+    private Overflow overflow;
+
+    private ConcurrentLinkedQueue<Event> queue;
+    private AtomicInteger queued;           // events in the queue
+    private AtomicLong sessions;
+    private AtomicLong logged;
+    private AtomicLong dropped;
+    private volatile boolean closing;
+    private Thread writerThread;
+
+    // Used by the writer thread only.
+    private Writer file;
+    private int fileNumber;
+    private long fileBytes;                 // characters written to the current file
+    private long droppedNoted;              // dropped events noted in the transcript
+    private IOException failure;            // the first write failure, if any
+    private long stampMillis = -1;          // the time last formatted
+    private String stamp;                   // and how it was formatted
+
+    /**
+     * Create a logger with the default limits that throws events away
+     * when it cannot keep up.
+     * @param directory The directory the transcripts are written to.
+     * @throws IOException if the first transcript file cannot be created.
+     */
+    public TranscriptLogger(Path directory) throws IOException
+    {
+        this(directory, DEFAULT_FILE_BYTES, DEFAULT_FILES_KEPT, DEFAULT_CAPACITY, Overflow.DROP);
+    }
+
+    /**
+     * Create a logger and start its writer thread.
+     * @param directory The directory the transcripts are written to.
+     * @param maxFileBytes The size at which a file is closed and the next
+     *                     started, counted before compression.
+     * @param filesKept The number of files kept; older ones are deleted.
+     * @param capacity The number of events that may wait to be written.
+     * @param overflow What to do with events when that many are waiting.
+     * @throws IOException if the first transcript file cannot be created.
+     */
+    public TranscriptLogger(Path directory, long maxFileBytes, int filesKept,
+                            int capacity, Overflow overflow) throws IOException
+    {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.filesKept = Math.max(filesKept, 1);
+        this.capacity = Math.max(capacity, 1);
+        this.overflow = overflow;
+        queue = new ConcurrentLinkedQueue<>();
+        queued = new AtomicInteger();
+        sessions = new AtomicLong();
+        logged = new AtomicLong();
+        dropped = new AtomicLong();
+
+        Files.createDirectories(directory);
+        fileNumber = lastFileNumber();
+        openNextFile();
+        writerThread = Thread.ofPlatform().name("transcript-writer").daemon().start(this::writeEvents);
+    }
+
+    /**
+     * Take a "-transcript directory" option out of a list of command line
+     * arguments, leaving the other arguments in place, and start a logger
+     * for it with the default limits.
+     * @param args The arguments; the option is removed.
+     * @return The logger, or null if the option was not given.
+     * @throws IOException if the first transcript file cannot be created.
+     */
+    public static TranscriptLogger fromOptions(List<String> args) throws IOException
+    {
+        int i = args.indexOf("-transcript");
+        if(i < 0 || i + 1 >= args.size()) {
+            return null;
+        }
+        Path directory = Paths.get(args.remove(i + 1));
+        args.remove(i);
+        return new TranscriptLogger(directory);
+    }
+
+    /**
+     * Give a new session its number, and note its start.
+     * @return The session's number.
+     */
+    public long newSession()
+    {
+        long session = sessions.incrementAndGet();
+        log(session, '*', "session started");
+        return session;
+    }
+
+    /**
+     * Record a command a session has played.
+     * @param session The session's number.
+     * @param command The command, as typed or as understood.
+     * @return true if the event was queued, false if it was thrown away.
+     */
+    public boolean logCommand(long session, String command)
+    {
+        return log(session, '>', command);
+    }
+
+    /**
+     * Record the output of a command.
+     * @param session The session's number.
+     * @param output The output, which may hold several lines.
+     * @return true if the event was queued, false if it was thrown away.
+     */
+    public boolean logOutput(long session, String output)
+    {
+        return log(session, '<', output);
+    }
+
+    /**
+     * Record a note about a session, such as its end.
+     * @param session The session's number.
+     * @param note The note.
+     * @return true if the event was queued, false if it was thrown away.
+     */
+    public boolean logNote(long session, String note)
+    {
+        return log(session, '*', note);
+    }
+
+    /**
+     * Write everything still queued, close the last file and stop the
+     * writer thread.
+     * @throws IOException if writing the transcript failed at any time.
+     */
+    public void close() throws IOException
+    {
+        closing = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if(failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return The number of events queued for writing so far.
+     */
+    public long getLoggedCount()
+    {
+        return logged.get();
+    }
+
+    /**
+     * @return The number of events thrown away because the queue was full.
+     */
+    public long getDroppedCount()
+    {
+        return dropped.get();
+    }
+
+    /**
+     * @return The number of events waiting to be written.
+     */
+    public int getQueueLength()
+    {
+        return queued.get();
+    }
+
+    /**
+     * @return A line such as "transcript: 120000 events, 0 dropped, 3 waiting".
+     */
+    public String toString()
+    {
+        return "transcript: " + getLoggedCount() + " events, " + getDroppedCount()
+               + " dropped, " + getQueueLength() + " waiting";
+    }
+
+    /**
+     * Queue an event, or deal with a full queue as the policy says.
+     */
+    private boolean log(long session, char mark, String text)
+    {
+        if(closing) {
+            return false;
+        }
+        while(queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            if(overflow == Overflow.DROP) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(IDLE_NANOS / 10);
+        }
+        queue.add(new Event(session, System.currentTimeMillis(), mark, text));
+        logged.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * The writer thread: take events off the queue and write them, until
+     * the logger is closed and the queue is empty.
+     */
+    private void writeEvents()
+    {
+        StringBuilder line = new StringBuilder(256);
+        long lastFlush = System.nanoTime();
+        boolean unflushed = false;
+        try {
+            while(true) {
+                Event event = queue.poll();
+                if(event == null) {
+                    if(closing && queued.get() == 0) {
+                        break;
+                    }
+                    if(unflushed) {
+                        file.flush();
+                        unflushed = false;
+                        lastFlush = System.nanoTime();
+                    }
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+                queued.decrementAndGet();
+                noteDropped(line);
+                format(event, line);
+                write(line);
+                unflushed = true;
+                if(System.nanoTime() - lastFlush > FLUSH_NANOS) {
+                    file.flush();
+                    unflushed = false;
+                    lastFlush = System.nanoTime();
+                }
+            }
+            noteDropped(line);
+            file.close();
+        }
+        catch(IOException e) {
+            failure = e;
+            System.err.println("Transcript could not be written: " + e.getMessage());
+            // keep emptying the queue so that games are not blocked
+            while(!closing || queued.get() > 0) {
+                if(queue.poll() != null) {
+                    queued.decrementAndGet();
+                }
+                else {
+                    LockSupport.parkNanos(IDLE_NANOS);
+                }
+            }
+        }
+    }
+
+    /**
+     * If events have been dropped since last noted, note how many.
+     */
+    private void noteDropped(StringBuilder line) throws IOException
+    {
+        long count = dropped.get();
+        if(count > droppedNoted) {
+            format(new Event(0, System.currentTimeMillis(), '*',
+                             (count - droppedNoted) + " events dropped"), line);
+            write(line);
+            droppedNoted = count;
+        }
+    }
+
+    /**
+     * Format an event as one line per line of its text.
+     */
+    private void format(Event event, StringBuilder line)
+    {
+        line.setLength(0);
+        if(event.millis != stampMillis) {
+            // many events share a millisecond, so format each time once
+            stampMillis = event.millis;
+            stamp = Instant.ofEpochMilli(event.millis).toString();
+        }
+        line.append(stamp).append(' ').append(event.session).append(' ').append(event.mark).append(' ');
+        int prefixLength = line.length();
+        String text = event.text;
+        int start = 0;
+        int length = text.length();
+        if(length > 0 && text.charAt(length - 1) == '\n') {
+            length--;
+        }
+        do {
+            int end = text.indexOf('\n', start);
+            if(end < 0 || end > length) {
+                end = length;
+            }
+            if(start > 0) {
+                line.append(line, 0, prefixLength);
+            }
+            line.append(text, start, end).append('\n');
+            start = end + 1;
+        }
+        while(start <= length);
+    }
+
+    /**
+     * Write a formatted event, starting the next file first if the
+     * current one is full.
+     */
+    private void write(StringBuilder line) throws IOException
+    {
+        if(fileBytes >= maxFileBytes) {
+            file.close();
+            openNextFile();
+        }
+        file.append(line);
+        fileBytes += line.length();
+    }
+
+    /**
+     * Open the next transcript file, and delete the oldest ones so that
+     * no more than filesKept are left.
+     */
+    private void openNextFile() throws IOException
+    {
+        fileNumber++;
+        Path path = directory.resolve(String.format("transcript-%06d.log.gz", fileNumber));
+        GZIPOutputStream zip = new GZIPOutputStream(Files.newOutputStream(path), 1 << 16, true) {
+            {
+                // transcripts are written far more often than read
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        };
+        file = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 1 << 16);
+        fileBytes = 0;
+
+        List<Path> files = transcriptFiles();
+        for(int i = 0; i + filesKept < files.size(); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    /**
+     * Return the number of the newest transcript in the directory, or 0.
+     */
+    private int lastFileNumber() throws IOException
+    {
+        List<Path> files = transcriptFiles();
+        if(files.isEmpty()) {
+            return 0;
+        }
+        String name = files.get(files.size() - 1).getFileName().toString();
+        return Integer.parseInt(name.substring("transcript-".length(), name.indexOf('.')));
+    }
+
+    /**
+     * Return the transcript files in the directory, oldest first.
+     */
+    private List<Path> transcriptFiles() throws IOException
+    {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "transcript-[0-9]*.log.gz")) {
+            for(Path path : stream) {
+                files.add(path);
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * One thing that happened in a session.
+     */
+    private static class Event
+    {
+        final long session;
+        final long millis;
+        final char mark;
+        final String text;
+
+        Event(long session, long millis, char mark, String text)
+        {
+            this.session = session;
+            this.millis = millis;
+            this.mark = mark;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * Weights are kept as whole milligrams in a long, so that adding up the
+ * items a player carries and comparing the total with the player's
+ * capacity is exact: 0.05kg and 0.01kg make 0.06kg, not
+ * 0.060000000000000005kg, and a player who can carry 5kg can carry
+ * exactly 5kg. Weight converts to and from kilograms, which is how
+ * weights are written in world files and shown to players.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public final class Weight
+{
+    public static final long MILLIGRAMS_PER_KILOGRAM = 1_000_000;
+
+    private Weight()
+    {
+    }
+
+    /**
+     * Convert kilograms to milligrams, to the nearest milligram.
+     * @param kilograms A weight in kilograms, for example 0.05.
+     * @return The weight in milligrams, for example 50000.
+     */
+    public static long fromKilograms(double kilograms)
+    {
+        return Math.round(kilograms * MILLIGRAMS_PER_KILOGRAM);
+    }
+
+    /**
+     * Convert milligrams to kilograms, for calculations that need not be
+     * exact.
+     * @param milligrams A weight in milligrams.
+     * @return The weight in kilograms.
+     */
+    public static double toKilograms(long milligrams)
+    {
+        return (double) milligrams / MILLIGRAMS_PER_KILOGRAM;
+    }
+
+    /**
+     * Read a weight written in kilograms, such as "0.05", exactly.
+     * Weights finer than a milligram are rounded to the nearest one.
+     * @param kilograms The weight as written.
+     * @return The weight in milligrams.
+     * @throws NumberFormatException if the text is not a weight that is
+     *         at least 0 and fits in a long.
+     */
+    public static long parse(String kilograms)
+    {
+        try {
+            long milligrams = new BigDecimal(kilograms).movePointRight(6)
+                                  .setScale(0, RoundingMode.HALF_UP).longValueExact();
+            if(milligrams < 0) {
+                throw new NumberFormatException("negative weight " + kilograms);
+            }
+            return milligrams;
+        }
+        catch(ArithmeticException e) {
+            throw new NumberFormatException("weight too large " + kilograms);
+        }
+    }
+
+    /**
+     * Write a weight in kilograms, with as many decimals as it needs
+     * but at least one: "0.05", "2.5", "7.0".
+     * @param milligrams The weight in milligrams.
+     * @return The weight in kilograms, without the unit.
+     */
+    public static String format(long milligrams)
+    {
+        return append(new StringBuilder(12), milligrams).toString();
+    }
+
+    /**
+     * Write a weight in kilograms, as format does, to a StringBuilder.
+     * @param text Where to write the weight.
+     * @param milligrams The weight in milligrams.
+     * @return The StringBuilder, to write more to.
+     */
+    public static StringBuilder append(StringBuilder text, long milligrams)
+    {
+        if(milligrams < 0) {
+            text.append('-');
+            // Long.MIN_VALUE stays negative, so it is written by its parts
+            if(milligrams == Long.MIN_VALUE) {
+                return appendFraction(text.append(-(milligrams / MILLIGRAMS_PER_KILOGRAM)),
+                                      -(milligrams % MILLIGRAMS_PER_KILOGRAM));
+            }
+            milligrams = -milligrams;
+        }
+        return appendFraction(text.append(milligrams / MILLIGRAMS_PER_KILOGRAM),
+                              milligrams % MILLIGRAMS_PER_KILOGRAM);
+    }
+
+    /**
+     * Write the fraction of a kilogram, in milligrams, as decimals
+     * without trailing zeros, after a decimal point.
+     */
+    private static StringBuilder appendFraction(StringBuilder text, long fraction)
+    {
+        text.append('.');
+        if(fraction == 0) {
+            return text.append('0');
+        }
+        for(long unit = MILLIGRAMS_PER_KILOGRAM / 10; fraction > 0; unit /= 10) {
+            text.append((char) ('0' + fraction / unit));
+            fraction %= unit;
+        }
+        return text;
+    }
+}
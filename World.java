@@ -0,0 +1,226 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * A World holds every room of the game together with the room where
+ * play starts. Each room added to the world gets a small integer id
+ * (its position in the world) and a unique name, so that rooms can be
+ * referred to from world definition files and binary world images.
+ *
+ * Once all rooms and exits are in place, the world can be compacted: the
+ * exits of all rooms are moved out of the rooms' own maps into one shared
+ * ExitGraph, which takes far less memory in large worlds.
+ *
+ * The world also keeps an ItemIndex of where every kind of item is.
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class World
+{
+    private ArrayList<Room> rooms;              // rooms, indexed by id
+    private ArrayList<String> roomNames;        // room names, indexed by id
+    private HashMap<String, Room> roomsByName;  // lookup of rooms by name
+    private Room startRoom;
+    private ExitGraph exitGraph;                // packed exits, null until compacted
+    private volatile RoutingIndex routingIndex; // null until built, or once exits change
+    private boolean exitsChanged;               // exits set since the graph was built
+    private ItemIndex itemIndex;                // where items of each kind are
+
+    /**
+     * Create an empty world without any rooms.
+     */
+    public World()
+    {
+        rooms = new ArrayList<>();
+        roomNames = new ArrayList<>();
+        roomsByName = new HashMap<>();
+        itemIndex = new ItemIndex();
+    }
+
+    /**
+     * Create an empty world with space reserved for the given number
+     * of rooms.
+     * @param expectedRooms The number of rooms the world will hold.
+     */
+    public World(int expectedRooms)
+    {
+        rooms = new ArrayList<>(expectedRooms);
+        roomNames = new ArrayList<>(expectedRooms);
+        roomsByName = new HashMap<>(Math.max(16, expectedRooms * 4 / 3 + 1));
+        itemIndex = new ItemIndex();
+    }
+
+    /**
+     * Return the index of where items are in this world: in which rooms,
+     * and carried by which players. Rooms and players keep it up to date.
+     * @return The item index of this world.
+     */
+    public ItemIndex getItemIndex()
+    {
+        return itemIndex;
+    }
+
+    /**
+     * Add a room to this world. The room is given the next free id.
+     * The first room added becomes the start room unless another one
+     * is chosen with setStartRoom.
+     * @param name The unique name of the room, for example "pub".
+     * @param room The room to add.
+     * @return The id given to the room.
+     */
+    public int addRoom(String name, Room room)
+    {
+        if(roomsByName.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate room name: " + name);
+        }
+        int id = rooms.size();
+        room.setWorld(this, id);
+        rooms.add(room);
+        roomNames.add(name);
+        roomsByName.put(name, room);
+        if(startRoom == null) {
+            startRoom = room;
+        }
+        return id;
+    }
+
+    /**
+     * Return the room with the given id.
+     * @param id The id of the room.
+     * @return The room with that id.
+     */
+    public Room getRoom(int id)
+    {
+        return rooms.get(id);
+    }
+
+    /**
+     * Return the room with the given name.
+     * @param name The name of the room.
+     * @return The room with that name, or null if there is none.
+     */
+    public Room getRoom(String name)
+    {
+        return roomsByName.get(name);
+    }
+
+    /**
+     * Return the name of the room with the given id.
+     * @param id The id of the room.
+     * @return The name of the room.
+     */
+    public String getRoomName(int id)
+    {
+        return roomNames.get(id);
+    }
+
+    /**
+     * @return The number of rooms in this world.
+     */
+    public int getRoomCount()
+    {
+        return rooms.size();
+    }
+
+    /**
+     * @return The room where players start.
+     */
+    public Room getStartRoom()
+    {
+        return startRoom;
+    }
+
+    /**
+     * Set the room where players start.
+     * @param room The new start room. It must belong to this world.
+     */
+    public void setStartRoom(Room room)
+    {
+        startRoom = room;
+    }
+
+    /**
+     * Move the exits of all rooms into one shared exit graph. This can be
+     * done again later to take in exits that were added since.
+     */
+    public synchronized void compactExits()
+    {
+        setExitGraph(ExitGraph.build(this));
+    }
+
+    /**
+     * Use an exit graph for the exits of all rooms. The graph must hold
+     * every exit of every room of this world.
+     * @param graph The exit graph.
+     */
+    public synchronized void setExitGraph(ExitGraph graph)
+    {
+        exitGraph = graph;
+        routingIndex = null;
+        exitsChanged = false;
+        for(Room room : rooms) {
+            room.setExitGraph(graph);
+        }
+    }
+
+    /**
+     * @return The exit graph of this world, or null if its exits have
+     * not been compacted.
+     */
+    public ExitGraph getExitGraph()
+    {
+        return exitGraph;
+    }
+
+    /**
+     * Build the routing index for finding routes between rooms of this
+     * world, compacting the world's exits first if that has not been done
+     * or exits have been set since. Loading and generating a world do
+     * this, so that no player has to wait for the index on their first
+     * trip.
+     */
+    public synchronized void buildRoutingIndex()
+    {
+        if(exitGraph == null || exitsChanged) {
+            compactExits();
+        }
+        routingIndex = new RoutingIndex(exitGraph);
+    }
+
+    /**
+     * Drop the routing index because an exit of a room in this world was
+     * set after its exits were compacted. The index is built again, with
+     * the exits compacted afresh, when it is next needed; exits to rooms
+     * outside the world stay in their rooms, so compacting again loses
+     * none. This is done by Room.setExit.
+     */
+    public synchronized void exitsChanged()
+    {
+        routingIndex = null;
+        exitsChanged = true;
+    }
+
+    /**
+     * Return the routing index for finding routes between rooms of this
+     * world. If the index has not been built, or exits have changed since,
+     * it is built now.
+     * @return The routing index of this world.
+     */
+    public RoutingIndex getRoutingIndex()
+    {
+        RoutingIndex index = routingIndex;
+        if(index == null) {
+            synchronized(this) {
+                if(routingIndex == null) {
+                    buildRoutingIndex();
+                }
+                index = routingIndex;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,424 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * This class is part of the "World of Zuul" application.
+ * "World of Zuul" is a text based adventure game.
+ *
+ * The world generator builds large worlds for testing how the game scales.
+ * Rooms are laid out on floors, each a square grid. Neighbouring rooms on
+ * a floor may be joined north-south or east-west, and rooms above each
+ * other may be joined up-down. Some exits only lead one way. Items are
+ * spread over the rooms, with weights that follow a log-normal
+ * distribution: most items are light and a few are very heavy.
+ *
+ * A world is determined by its seed and settings alone. Every decision is
+ * taken by hashing the seed with the room, exit or item it concerns, never
+ * by drawing from a shared random number generator, so the rooms can be
+ * generated in parallel and the same seed always gives the same world,
+ * however many threads are used.
+ *
+ *     java WorldGenerator rooms items [seed] [-degree d] [-oneway f]
+ *                         [-vertical f] [-floors n] [-out file.img]
+ *
+ * @author oliviad118
+ * @version 2026.10.17
+ */
+public class WorldGenerator
+{
+    // Rooms are generated in chunks of this many rooms per task.
+    private static final int CHUNK = 16_384;
+
+    private static final String[] PLACES = {
+        "corridor", "hall", "storeroom", "library", "workshop", "cellar",
+        "courtyard", "lecture theater", "office", "kitchen", "laboratory", "stairwell",
+    };
+    private static final String[] ADJECTIVES = {
+        "dusty", "bright", "narrow", "damp", "quiet", "crowded",
+        "cold", "cluttered", "tiny", "vast", "dim", "freshly painted",
+    };
+    private static final String[] ITEM_NAMES = {
+        "map", "key", "book", "pen", "lamp", "rope", "coin", "cup", "box", "bottle",
+        "hammer", "scroll", "candle", "shovel", "ladder", "anvil", "apple", "cookie",
+        "helmet", "shield", "chair", "crate", "notebook", "stapler", "toolbox", "brick",
+    };
+    // The median item weighs this much; weights spread by a factor e^SIGMA.
+    private static final double MEDIAN_WEIGHT = 0.3;
+    private static final double WEIGHT_SIGMA = 1.2;
+
+    // what a hash decides, mixed into the hash so decisions are independent
+    private static final long EAST_EDGE = 1;
+    private static final long SOUTH_EDGE = 2;
+    private static final long UP_EDGE = 3;
+    private static final long ONE_WAY = 4;
+    private static final long DESCRIPTION = 5;
+    private static final long ITEM = 6;
+
+    private long seed;
+    private double degree;              // average exits per room on a floor, up to 4
+    private double oneWayFraction;      // fraction of exits leading one way only
+    private double verticalFraction;    // fraction of rooms joined to the floor above
+    private int floors;
+
+    // the directions in the exit graph
+    private static final short NORTH = (short) Directions.intern("north");
+    private static final short EAST = (short) Directions.intern("east");
+    private static final short SOUTH = (short) Directions.intern("south");
+    private static final short WEST = (short) Directions.intern("west");
+    private static final short UP = (short) Directions.intern("up");
+    private static final short DOWN = (short) Directions.intern("down");
+
+    /**
+     * Generate a world from the command line, and write it as a world
+     * image if -out is given.
+     * @param args The number of rooms and items, the optional seed, and
+     *             the options described above.
+     * @throws IOException if the world image cannot be written.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length < 2) {
+            System.out.println("usage: java WorldGenerator rooms items [seed] [-degree d] [-oneway f]"
+                               + " [-vertical f] [-floors n] [-out file.img]");
+            return;
+        }
+        int roomCount = Integer.parseInt(args[0]);
+        int itemCount = Integer.parseInt(args[1]);
+        WorldGenerator generator = new WorldGenerator(42);
+        String outFile = null;
+        for(int i = 2; i < args.length; i++) {
+            String option = args[i];
+            if(!option.startsWith("-")) {
+                generator.seed = Long.parseLong(option);
+            }
+            else if(i + 1 < args.length) {
+                String value = args[++i];
+                switch(option) {
+                    case "-degree":   generator.setDegree(Double.parseDouble(value)); break;
+                    case "-oneway":   generator.setOneWayFraction(Double.parseDouble(value)); break;
+                    case "-vertical": generator.setVerticalFraction(Double.parseDouble(value)); break;
+                    case "-floors":   generator.setFloors(Integer.parseInt(value)); break;
+                    case "-out":      outFile = value; break;
+                    default:
+                        System.out.println("Unknown option " + option);
+                        return;
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        World world = generator.generate(roomCount, itemCount);
+        long nanos = System.nanoTime() - start;
+        System.out.printf("Generated %d rooms, %d exits and %d items in %.1f ms%n",
+                          world.getRoomCount(), world.getExitGraph().getExitCount(),
+                          itemCount, nanos / 1e6);
+        if(outFile != null) {
+            new WorldLoader().writeImage(world, Paths.get(outFile));
+            System.out.println("Written to " + outFile);
+        }
+    }
+
+    /**
+     * Create a generator with the default settings: about three exits per
+     * room, 5% of them one-way, 10% of rooms joined to the floor above,
+     * and four floors.
+     * @param seed The seed that determines the worlds generated.
+     */
+    public WorldGenerator(long seed)
+    {
+        this.seed = seed;
+        degree = 3.0;
+        oneWayFraction = 0.05;
+        verticalFraction = 0.1;
+        floors = 4;
+    }
+
+    /**
+     * Set the average number of exits per room within a floor.
+     * @param degree The number of exits, from 0 to 4.
+     */
+    public void setDegree(double degree)
+    {
+        if(degree < 0 || degree > 4) {
+            throw new IllegalArgumentException("The degree must be between 0 and 4: " + degree);
+        }
+        this.degree = degree;
+    }
+
+    /**
+     * Set the fraction of connections that only lead one way.
+     * @param fraction The fraction, from 0 to 1.
+     */
+    public void setOneWayFraction(double fraction)
+    {
+        oneWayFraction = checkFraction(fraction);
+    }
+
+    /**
+     * Set the fraction of rooms joined up-down to the room above them.
+     * @param fraction The fraction, from 0 to 1.
+     */
+    public void setVerticalFraction(double fraction)
+    {
+        verticalFraction = checkFraction(fraction);
+    }
+
+    /**
+     * Set the number of floors the rooms are spread over.
+     * @param floors The number of floors, at least 1.
+     */
+    public void setFloors(int floors)
+    {
+        if(floors < 1) {
+            throw new IllegalArgumentException("There must be at least one floor: " + floors);
+        }
+        this.floors = floors;
+    }
+
+    /**
+     * Generate a world. Its exits are held in an exit graph, its routing
+     * index is built, and room 0 is the start room.
+     * @param roomCount The number of rooms, at least 1.
+     * @param itemCount The number of items.
+     * @return The new world.
+     */
+    public World generate(int roomCount, int itemCount)
+    {
+        if(roomCount < 1 || itemCount < 0) {
+            throw new IllegalArgumentException("Cannot generate " + roomCount + " rooms and "
+                                               + itemCount + " items");
+        }
+        Layout layout = new Layout(roomCount, Math.min(floors, roomCount));
+        int chunks = (roomCount + CHUNK - 1) / CHUNK;
+
+        // Create the rooms. Descriptions are shared between rooms.
+        String[] descriptions = new String[PLACES.length * ADJECTIVES.length];
+        for(int i = 0; i < descriptions.length; i++) {
+            descriptions[i] = "in a " + ADJECTIVES[i / PLACES.length] + " " + PLACES[i % PLACES.length];
+        }
+        Room[] rooms = new Room[roomCount];
+        String[] names = new String[roomCount];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            for(int id = chunk * CHUNK; id < Math.min(roomCount, (chunk + 1) * CHUNK); id++) {
+                int description = (int) Long.remainderUnsigned(hash(DESCRIPTION, id, 0), descriptions.length);
+                rooms[id] = new Room(descriptions[description]);
+                names[id] = "r" + id;
+            }
+        });
+        World world = new World(roomCount);
+        for(int id = 0; id < roomCount; id++) {
+            world.addRoom(names[id], rooms[id]);
+        }
+
+        // Count the exits of every room, then fill them in; every room
+        // works out its own exits, so both passes run in parallel.
+        int[] firstExit = new int[roomCount + 1];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            for(int id = chunk * CHUNK; id < Math.min(roomCount, (chunk + 1) * CHUNK); id++) {
+                firstExit[id + 1] = addExits(layout, id, null, null, 0);
+            }
+        });
+        for(int id = 0; id < roomCount; id++) {
+            firstExit[id + 1] += firstExit[id];
+        }
+        short[] directions = new short[firstExit[roomCount]];
+        int[] targets = new int[firstExit[roomCount]];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            for(int id = chunk * CHUNK; id < Math.min(roomCount, (chunk + 1) * CHUNK); id++) {
+                addExits(layout, id, directions, targets, firstExit[id]);
+            }
+        });
+        world.setExitGraph(new ExitGraph(world, firstExit, directions, targets));
+
+        addItems(rooms, itemCount);
+        world.setStartRoom(rooms[0]);
+        world.buildRoutingIndex();
+        return world;
+    }
+
+    /**
+     * Work out the exits of a room. If directions is not null, the exits
+     * are stored from position first on.
+     * @return The number of exits of the room.
+     */
+    private int addExits(Layout layout, int id, short[] directions, int[] targets, int first)
+    {
+        int exit = first;
+        int x = layout.x(id);
+        int y = layout.y(id);
+        int side = layout.side;
+        double edgeChance = degree / 4;
+
+        // each connection is decided once, by hashing its lower room id
+        if(y > 0 && layout.exists(id - side)) {
+            exit = connect(id - side, SOUTH_EDGE, edgeChance, false, NORTH, id - side,
+                           directions, targets, exit);
+        }
+        if(x + 1 < side && layout.exists(id + 1)) {
+            exit = connect(id, EAST_EDGE, edgeChance, true, EAST, id + 1, directions, targets, exit);
+        }
+        if(y + 1 < side && layout.exists(id + side)) {
+            exit = connect(id, SOUTH_EDGE, edgeChance, true, SOUTH, id + side, directions, targets, exit);
+        }
+        if(x > 0) {
+            exit = connect(id - 1, EAST_EDGE, edgeChance, false, WEST, id - 1, directions, targets, exit);
+        }
+        int floorSize = side * side;
+        if(id + floorSize < layout.roomCount) {
+            exit = connect(id, UP_EDGE, verticalFraction, true, UP, id + floorSize, directions, targets, exit);
+        }
+        if(id >= floorSize) {
+            exit = connect(id - floorSize, UP_EDGE, verticalFraction, false, DOWN, id - floorSize,
+                           directions, targets, exit);
+        }
+        return exit - first;
+    }
+
+    /**
+     * Decide whether a connection exists and can be used in the direction
+     * asked for, and if so add the exit.
+     * @param lower The lower room id of the connection, which names it.
+     * @param kind Which connection of the lower room it is.
+     * @param chance The chance that the connection exists.
+     * @param forward true if the exit leads away from the lower room.
+     * @return The position of the next exit.
+     */
+    private int connect(int lower, long kind, double chance, boolean forward, short direction,
+                        int target, short[] directions, int[] targets, int exit)
+    {
+        if(toFraction(hash(kind, lower, 0)) >= chance) {
+            return exit;
+        }
+        long oneWay = hash(ONE_WAY, lower, kind);
+        if(toFraction(oneWay) < oneWayFraction && ((oneWay & 1) == 0) != forward) {
+            return exit;    // a one-way connection leading the other way
+        }
+        if(directions != null) {
+            directions[exit] = direction;
+            targets[exit] = target;
+        }
+        return exit + 1;
+    }
+
+    /**
+     * Put items in the rooms. Every item's room, name and weight come from
+     * hashing its number. The items of each room are added in the order of
+     * their numbers, so the rooms can be filled in parallel.
+     */
+    private void addItems(Room[] rooms, int itemCount)
+    {
+        int roomCount = rooms.length;
+        int[] itemRooms = new int[itemCount];
+        IntStream.range(0, (itemCount + CHUNK - 1) / CHUNK).parallel().forEach(chunk -> {
+            for(int i = chunk * CHUNK; i < Math.min(itemCount, (chunk + 1) * CHUNK); i++) {
+                itemRooms[i] = (int) Long.remainderUnsigned(hash(ITEM, i, 0), roomCount);
+            }
+        });
+
+        // sort the items by room, keeping their order within a room
+        int[] firstItem = new int[roomCount + 1];
+        for(int room : itemRooms) {
+            firstItem[room + 1]++;
+        }
+        for(int room = 0; room < roomCount; room++) {
+            firstItem[room + 1] += firstItem[room];
+        }
+        int[] itemsByRoom = new int[itemCount];
+        int[] next = firstItem.clone();
+        for(int i = 0; i < itemCount; i++) {
+            itemsByRoom[next[itemRooms[i]]++] = i;
+        }
+
+        IntStream.range(0, (roomCount + CHUNK - 1) / CHUNK).parallel().forEach(chunk -> {
+            for(int room = chunk * CHUNK; room < Math.min(roomCount, (chunk + 1) * CHUNK); room++) {
+                for(int i = firstItem[room]; i < firstItem[room + 1]; i++) {
+                    rooms[room].addItem(createItem(itemsByRoom[i]));
+                }
+            }
+        });
+    }
+
+    /**
+     * Create an item from its number. The weight is log-normal, rounded
+     * to the gram.
+     */
+    private Item createItem(int number)
+    {
+        SplittableRandom random = new SplittableRandom(hash(ITEM, number, 1));
+        String name = ITEM_NAMES[random.nextInt(ITEM_NAMES.length)];
+        double weight = MEDIAN_WEIGHT * Math.exp(WEIGHT_SIGMA * random.nextGaussian());
+        long grams = Math.max(1, Math.round(weight * 1000));
+        return Item.ofMilligrams(name, grams * (Weight.MILLIGRAMS_PER_KILOGRAM / 1000));
+    }
+
+    /**
+     * Hash the seed with what is being decided and the numbers concerned.
+     */
+    private long hash(long kind, long a, long b)
+    {
+        return mix(mix(mix(seed ^ kind * 0x9E3779B97F4A7C15L) ^ a) ^ b);
+    }
+
+    /**
+     * The SplitMix64 finaliser: a cheap mix in which every input bit
+     * affects every output bit.
+     */
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Turn a hash into a fraction between 0 and 1.
+     */
+    private static double toFraction(long hash)
+    {
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Check that a fraction is between 0 and 1.
+     */
+    private static double checkFraction(double fraction)
+    {
+        if(fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("A fraction must be between 0 and 1: " + fraction);
+        }
+        return fraction;
+    }
+
+    /**
+     * Where rooms are: room ids run along the rows of a square grid, one
+     * floor after another.
+     */
+    private static class Layout
+    {
+        final int roomCount;
+        final int side;
+
+        Layout(int roomCount, int floors)
+        {
+            this.roomCount = roomCount;
+            side = (int) Math.ceil(Math.sqrt((double) roomCount / floors));
+        }
+
+        int x(int id)
+        {
+            return id % side;
+        }
+
+        int y(int id)
+        {
+            return (id / side) % side;
+        }
+
+        boolean exists(int id)
+        {
+            return id >= 0 && id < roomCount;
+        }
+    }
+}